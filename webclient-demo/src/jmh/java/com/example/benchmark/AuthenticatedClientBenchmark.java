@@ -0,0 +1,100 @@
+package com.example.benchmark;
+
+import com.example.config.RetryProperties;
+import com.example.service.AuthApiClientService;
+import com.example.service.BearerTokenFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of rebuilding an authenticated client with {@code mutate()} versus sending
+ * through one shared client with {@link BearerTokenFilter}. The exchange is stubbed so only
+ * client-side work is measured; run with {@code -prof gc} for bytes allocated per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthenticatedClientBenchmark {
+
+    private MockWebServer authServer;
+    private AuthApiClientService authService;
+    private WebClient baseClient;
+    private WebClient sharedClient;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        authServer = new MockWebServer();
+        authServer.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody("{\"accessToken\":\"token\",\"refreshToken\":\"refresh\",\"expiresIn\":86400}"));
+        authServer.start();
+        RetryProperties retryProperties = new RetryProperties();
+        retryProperties.setMaxAttempts(0);
+        retryProperties.setDelay(Duration.ofMillis(1));
+        authService = new AuthApiClientService(
+                WebClient.builder(), authServer.url("/").toString(), "/auth/login", "/auth/refresh",
+                null, null, Duration.ofMinutes(1), retryProperties, new SimpleMeterRegistry());
+        authService.login("user", "pass").block();
+
+        baseClient = WebClient.builder()
+                .baseUrl("http://upstream")
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.NO_CONTENT).build()))
+                .build();
+        sharedClient = baseClient.mutate()
+                .filter(new BearerTokenFilter(authService))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        authService.shutdown();
+        authServer.shutdown();
+    }
+
+    @Benchmark
+    public Object mutatePerRequest() {
+        return baseClient.mutate()
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + authService.getAccessToken())
+                .build()
+                .get()
+                .uri("/users")
+                .retrieve()
+                .toBodilessEntity()
+                .block();
+    }
+
+    @Benchmark
+    public Object sharedFilteredClient() {
+        return sharedClient.get()
+                .uri("/users")
+                .retrieve()
+                .toBodilessEntity()
+                .block();
+    }
+}
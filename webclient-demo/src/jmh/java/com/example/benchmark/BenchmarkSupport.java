@@ -0,0 +1,56 @@
+package com.example.benchmark;
+
+import com.example.WebclientDemoApplication;
+import com.example.entity.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared fixtures for the JMH benchmarks.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            users.add(new User(id, "User " + id, "user" + id, "user" + id + "@example.com"));
+        }
+        return users;
+    }
+
+    static byte[] usersJson(int count) throws JsonProcessingException {
+        return new ObjectMapper().writeValueAsBytes(users(count));
+    }
+
+    /**
+     * Application context on an in-memory H2 database in MySQL mode, without a web server.
+     */
+    static ConfigurableApplicationContext startApplication(String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--auth.base-url=http://localhost:1",
+                // The scheduled sync would call the unreachable upstream in the middle of a run
+                "--sync.job.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example=WARN"));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(WebclientDemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.benchmark;
+
+import com.example.entity.User;
+import com.example.repository.UserJdbcRepository;
+import com.example.service.ReactiveUserService;
+import com.example.service.UserApiClientService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyset page reads from 32 concurrent callers through JPA and through R2DBC. SampleTime mode
+ * reports p99 directly; the JVM thread count after each iteration is printed to compare how
+ * many threads each mode needs. The HTTP-level comparison is in the load-test harness.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class PersistenceModeBenchmark {
+
+    private static final int USERS = 10_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"jpa", "r2dbc"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private UserApiClientService userApiClientService;
+    private ReactiveUserService reactiveUserService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = "r2dbc".equals(mode)
+                ? BenchmarkSupport.startApplication(
+                        "--spring.profiles.active=r2dbc",
+                        "--spring.r2dbc.url=r2dbc:h2:mem:///bench?options=MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.r2dbc.username=sa",
+                        "--spring.r2dbc.password=",
+                        // With 32 callers blocking on H2's synchronous R2DBC driver, r2dbc-pool
+                        // stops handing out connections and every caller waits for good. In-memory
+                        // H2 connections are cheap to open, so go without the pool here
+                        "--spring.r2dbc.pool.enabled=false")
+                : BenchmarkSupport.startApplication();
+        context.getBean(UserJdbcRepository.class).upsertAll(BenchmarkSupport.users(USERS));
+        userApiClientService = context.getBean(UserApiClientService.class);
+        reactiveUserService = "r2dbc".equals(mode) ? context.getBean(ReactiveUserService.class) : null;
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportThreads() {
+        System.out.printf("%n[%s] live threads: %d, peak: %d%n", mode,
+                ManagementFactory.getThreadMXBean().getThreadCount(),
+                ManagementFactory.getThreadMXBean().getPeakThreadCount());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<User> readPage() {
+        long afterId = ThreadLocalRandom.current().nextLong(0, USERS - PAGE_SIZE);
+        if (reactiveUserService != null) {
+            return reactiveUserService.getUsersPage(afterId, PAGE_SIZE).collectList().block();
+        }
+        return userApiClientService.getUsersPage(afterId, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The token expiry check before and after moving to a precomputed epoch-millis deadline.
+ * Run with {@code -prof gc}: the deadline check should report ~0 B/op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenExpiryBenchmark {
+
+    private final Clock clock = Clock.systemUTC();
+    private final LocalDateTime expiresAt = LocalDateTime.now().plusHours(1);
+    private final long renewAtMillis = clock.millis() + Duration.ofMinutes(55).toMillis();
+
+    @Benchmark
+    public boolean localDateTimeCheck() {
+        return LocalDateTime.now().isAfter(expiresAt.minusMinutes(5));
+    }
+
+    @Benchmark
+    public boolean deadlineCheck() {
+        return clock.millis() > renewAtMillis;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.benchmark;
+
+import com.example.config.RetryProperties;
+import com.example.service.AuthApiClientService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token lookups from many threads at once, as every outbound request performs one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class TokenLookupBenchmark {
+
+    private MockWebServer authServer;
+    private AuthApiClientService authService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        authServer = new MockWebServer();
+        authServer.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody("{\"accessToken\":\"token\",\"refreshToken\":\"refresh\",\"expiresIn\":86400}"));
+        authServer.start();
+        RetryProperties retryProperties = new RetryProperties();
+        retryProperties.setMaxAttempts(0);
+        retryProperties.setDelay(Duration.ofMillis(1));
+        authService = new AuthApiClientService(
+                WebClient.builder(), authServer.url("/").toString(), "/auth/login", "/auth/refresh",
+                null, null, Duration.ofMinutes(1), retryProperties, new SimpleMeterRegistry());
+        authService.login("user", "pass").block();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        authService.shutdown();
+        authServer.shutdown();
+    }
+
+    @Benchmark
+    public String getAccessToken() {
+        return authService.getAccessToken();
+    }
+
+    @Benchmark
+    public String getValidAccessToken() {
+        return authService.getValidAccessToken().block();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.benchmark;
+
+import com.example.codec.UserJsonDecoder;
+import com.example.entity.User;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decode a {@code /users} array delivered in 8 KB pooled Netty buffers, as Reactor Netty hands
+ * them over, without the HTTP round trip. Compares the default Jackson decoder, the same decoder
+ * with Blackbird, and {@link UserJsonDecoder}. Run with {@code -prof gc}; dividing
+ * {@code gc.alloc.rate.norm} by {@code payloadSize} gives bytes allocated per user.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserDecodingBenchmark {
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+    private static final ResolvableType USER = ResolvableType.forClass(User.class);
+
+    @Param({"100", "10000", "100000"})
+    public int payloadSize;
+
+    @Param({"jackson", "jackson-blackbird", "streaming"})
+    public String decoderType;
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private byte[] body;
+    private Decoder<?> decoder;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        body = BenchmarkSupport.usersJson(payloadSize);
+        ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        switch (decoderType) {
+            case "jackson" -> decoder = new Jackson2JsonDecoder(objectMapper);
+            case "jackson-blackbird" -> decoder = new Jackson2JsonDecoder(objectMapper.registerModule(new BlackbirdModule()));
+            case "streaming" -> decoder = new UserJsonDecoder(objectMapper.registerModule(new BlackbirdModule()), -1);
+            default -> throw new IllegalArgumentException(decoderType);
+        }
+        if (decoder instanceof Jackson2JsonDecoder jackson) {
+            jackson.setMaxInMemorySize(-1);
+        }
+    }
+
+    @Benchmark
+    public long decode() {
+        return decoder.decode(chunks(), USER, MediaType.APPLICATION_JSON, Collections.emptyMap())
+                .count()
+                .block();
+    }
+
+    /**
+     * Fresh pooled buffers per invocation, since decoders release what they consume.
+     */
+    private Flux<DataBuffer> chunks() {
+        return Flux.range(0, (body.length + CHUNK_SIZE - 1) / CHUNK_SIZE)
+                .map(chunk -> {
+                    int offset = chunk * CHUNK_SIZE;
+                    int length = Math.min(CHUNK_SIZE, body.length - offset);
+                    DataBuffer buffer = bufferFactory.allocateBuffer(length);
+                    buffer.write(body, offset, length);
+                    return buffer;
+                });
+    }
+}
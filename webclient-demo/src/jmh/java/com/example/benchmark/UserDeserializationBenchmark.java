@@ -0,0 +1,79 @@
+package com.example.benchmark;
+
+import com.example.entity.User;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetch and decode {@code GET /users} through {@code bodyToFlux(User.class)} from a local
+ * MockWebServer. Run with {@code -prof gc} to see allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserDeserializationBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int payloadSize;
+
+    private MockWebServer upstream;
+    private WebClient webClient;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        byte[] body = BenchmarkSupport.usersJson(payloadSize);
+        upstream = new MockWebServer();
+        upstream.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .setBody(new Buffer().write(body));
+            }
+        });
+        upstream.start();
+        webClient = WebClient.builder()
+                .baseUrl(upstream.url("/").toString())
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        upstream.shutdown();
+    }
+
+    @Benchmark
+    public long fetchAndDecode() {
+        return webClient.get()
+                .uri("/users")
+                .retrieve()
+                .bodyToFlux(User.class)
+                .count()
+                .block();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.benchmark;
+
+import com.example.entity.User;
+import com.example.repository.UserJdbcRepository;
+import com.example.repository.UserRepository;
+import com.example.service.UserApiClientService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second written by the JPA {@code saveAll} path versus the batched JDBC upsert,
+ * against an embedded H2 database in MySQL mode. Every invocation rewrites the same
+ * {@value #ROWS} users, which matches a sync of an already populated table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserPersistenceBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private UserJdbcRepository userJdbcRepository;
+    private UserApiClientService userApiClientService;
+    private List<User> users;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startApplication();
+        userRepository = context.getBean(UserRepository.class);
+        userJdbcRepository = context.getBean(UserJdbcRepository.class);
+        userApiClientService = context.getBean(UserApiClientService.class);
+        users = BenchmarkSupport.users(ROWS);
+        userJdbcRepository.upsertAll(users);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<User> jpaSaveAll() {
+        return userRepository.saveAll(users);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int jdbcUpsert() {
+        return userJdbcRepository.upsertAll(users);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<User> saveUsers() {
+        return userApiClientService.saveUsers(users).block();
+    }
+}
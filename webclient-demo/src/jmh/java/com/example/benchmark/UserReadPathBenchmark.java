@@ -0,0 +1,76 @@
+package com.example.benchmark;
+
+import com.example.entity.User;
+import com.example.repository.UserJdbcRepository;
+import com.example.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository reads with and without the Hibernate second-level cache ({@code l2cache} profile).
+ * Runs on in-memory H2, so the uncached numbers understate a MySQL network round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserReadPathBenchmark {
+
+    private static final int USERS = 1000;
+
+    @Param({"false", "true"})
+    public boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = secondLevelCache
+                ? BenchmarkSupport.startApplication("--spring.profiles.active=l2cache")
+                : BenchmarkSupport.startApplication();
+        userRepository = context.getBean(UserRepository.class);
+        context.getBean(UserJdbcRepository.class).upsertAll(BenchmarkSupport.users(USERS));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User findById() {
+        return userRepository.findById(randomId()).orElseThrow();
+    }
+
+    @Benchmark
+    public User findByNaturalUsername() {
+        return userRepository.findByNaturalUsername("user" + randomId()).orElseThrow();
+    }
+
+    @Benchmark
+    public boolean existsByEmail() {
+        return userRepository.existsByEmail("user" + randomId() + "@example.com");
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, USERS + 1);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.benchmark;
+
+import com.example.entity.User;
+import com.example.repository.UserJdbcRepository;
+import com.example.service.UserApiClientService;
+import com.example.service.UserSnapshot;
+import com.example.service.UserSnapshotStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads over a million users through JPA and from the in-memory snapshot ({@code snapshot.enabled}).
+ * After loading, the retained heap is printed; the in-memory H2 database is part of it in both
+ * modes, so the difference between the two is the snapshot's footprint. GC count and pause time
+ * are printed per iteration; add {@code -prof gc} for allocation per read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class UserSnapshotBenchmark {
+
+    private static final int USERS = 1_000_000;
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"jpa", "snapshot"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private UserApiClientService userApiClientService;
+    private long gcCount;
+    private long gcMillis;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startApplication("--snapshot.enabled=" + "snapshot".equals(mode));
+        context.getBean(UserJdbcRepository.class).upsertAll(BenchmarkSupport.users(USERS));
+        userApiClientService = context.getBean(UserApiClientService.class);
+        if ("snapshot".equals(mode)) {
+            UserSnapshotStore snapshotStore = context.getBean(UserSnapshotStore.class);
+            snapshotStore.rebuild();
+            UserSnapshot snapshot = snapshotStore.current();
+            System.out.printf("%n[snapshot] %d users in %d MiB of arrays%n",
+                    snapshot.size(), snapshot.memoryBytes() >> 20);
+        }
+        System.gc();
+        System.out.printf("%n[%s] retained heap after load: %d MiB%n", mode,
+                ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() >> 20);
+    }
+
+    @Setup(Level.Iteration)
+    public void markGc() {
+        gcCount = totalGcCount();
+        gcMillis = totalGcMillis();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportGc() {
+        System.out.printf("%n[%s] GCs: %d, GC time: %d ms%n", mode,
+                totalGcCount() - gcCount, totalGcMillis() - gcMillis);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User getUserById() {
+        return userApiClientService.getUserById(ThreadLocalRandom.current().nextLong(1, USERS + 1));
+    }
+
+    @Benchmark
+    public List<User> getUsersPage() {
+        return userApiClientService.getUsersPage(ThreadLocalRandom.current().nextLong(0, USERS - PAGE_SIZE), PAGE_SIZE);
+    }
+
+    private static long totalGcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .sum();
+    }
+
+    private static long totalGcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .sum();
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.codec;
+
+import com.example.entity.User;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractDecoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming decoder for {@code User} and JSON arrays of users.
+ *
+ * <p>Unlike the default Jackson decoder, which copies every incoming buffer into a {@code byte[]},
+ * the readable {@code ByteBuffer}s of each (pooled) {@link DataBuffer} are fed straight into a
+ * non-blocking Jackson parser and the buffer is released as soon as it has been tokenized. Each
+ * array element is bound with one shared {@link ObjectReader} as soon as its closing brace
+ * arrives, so memory stays bounded by the largest single user rather than the whole payload.
+ * {@code maxInMemorySize} caps the bytes buffered for one element; {@code -1} means no limit.
+ */
+public class UserJsonDecoder extends AbstractDecoder<User> {
+
+  private final ObjectMapper objectMapper;
+  private final ObjectReader userReader;
+  private final int maxInMemorySize;
+
+  public UserJsonDecoder(ObjectMapper objectMapper, int maxInMemorySize) {
+    super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+    this.objectMapper = objectMapper;
+    this.userReader = objectMapper.readerFor(User.class);
+    this.maxInMemorySize = maxInMemorySize;
+  }
+
+  public int getMaxInMemorySize() {
+    return maxInMemorySize;
+  }
+
+  @Override
+  public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+    return elementType.toClass() == User.class && super.canDecode(elementType, mimeType);
+  }
+
+  @Override
+  public Flux<User> decode(Publisher<DataBuffer> input, ResolvableType elementType,
+                           MimeType mimeType, Map<String, Object> hints) {
+    return Flux.defer(() -> {
+      Tokenizer tokenizer = new Tokenizer();
+      return Flux.from(input)
+          .concatMapIterable(tokenizer::feed)
+          .concatWith(Flux.defer(() -> Flux.fromIterable(tokenizer.endOfInput())))
+          .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+          .doFinally(signal -> tokenizer.close());
+    });
+  }
+
+  /**
+   * A single user; an array body yields its first element.
+   */
+  @Override
+  public Mono<User> decodeToMono(Publisher<DataBuffer> input, ResolvableType elementType,
+                                 MimeType mimeType, Map<String, Object> hints) {
+    return decode(input, elementType, mimeType, hints).next();
+  }
+
+  /**
+   * Parser state for one response body. Not thread-safe; buffers arrive serially.
+   */
+  private final class Tokenizer {
+
+    private final JsonParser parser;
+    private final ByteBufferFeeder feeder;
+    private TokenBuffer element;
+    private int depth;
+    private boolean inArray;
+    private long bytesFed;
+    private long elementStartedAt;
+
+    private Tokenizer() {
+      try {
+        this.parser = objectMapper.getFactory().createNonBlockingByteBufferParser();
+      } catch (IOException e) {
+        throw new DecodingException("Could not create JSON parser", e);
+      }
+      this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    private List<User> feed(DataBuffer buffer) {
+      List<User> users = new ArrayList<>();
+      try (DataBuffer.ByteBufferIterator byteBuffers = buffer.readableByteBuffers()) {
+        while (byteBuffers.hasNext()) {
+          ByteBuffer byteBuffer = byteBuffers.next();
+          bytesFed += byteBuffer.remaining();
+          feeder.feedInput(byteBuffer);
+          parseAvailable(users);
+        }
+      } catch (IOException e) {
+        throw Exceptions.propagate(decodingException(e));
+      } finally {
+        DataBufferUtils.release(buffer);
+      }
+      return users;
+    }
+
+    private List<User> endOfInput() {
+      List<User> users = new ArrayList<>();
+      try {
+        feeder.endOfInput();
+        parseAvailable(users);
+      } catch (IOException e) {
+        throw Exceptions.propagate(decodingException(e));
+      }
+      if (element != null || inArray) {
+        throw new DecodingException("Incomplete JSON: body ended inside a user array or object");
+      }
+      return users;
+    }
+
+    private void parseAvailable(List<User> users) throws IOException {
+      JsonToken token;
+      while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+        if (element == null) {
+          startElement(token);
+          continue;
+        }
+        element.copyCurrentEvent(parser);
+        if (token.isStructStart()) {
+          depth++;
+        } else if (token.isStructEnd() && --depth == 0) {
+          users.add(userReader.readValue(element.asParser(objectMapper)));
+          element = null;
+        }
+      }
+      if (element != null && maxInMemorySize >= 0 && bytesFed - elementStartedAt > maxInMemorySize) {
+        throw new DataBufferLimitException(
+            "Exceeded limit on max bytes per user to buffer: " + maxInMemorySize);
+      }
+    }
+
+    private void startElement(JsonToken token) throws IOException {
+      if (token == JsonToken.START_OBJECT) {
+        element = new TokenBuffer(parser);
+        element.copyCurrentEvent(parser);
+        depth = 1;
+        elementStartedAt = bytesFed;
+      } else if (token == JsonToken.START_ARRAY && !inArray) {
+        inArray = true;
+      } else if (token == JsonToken.END_ARRAY && inArray) {
+        inArray = false;
+      } else {
+        throw new DecodingException("Expected a user object or an array of users but found " + token);
+      }
+    }
+
+    private void close() {
+      try {
+        parser.close();
+      } catch (IOException ignored) {
+        // Nothing is held beyond the current buffer, which has already been released
+      }
+    }
+  }
+
+  private static DecodingException decodingException(IOException e) {
+    if (e instanceof JsonProcessingException json) {
+      return new DecodingException("JSON decoding error: " + json.getOriginalMessage(), e);
+    }
+    return new DecodingException("I/O error while parsing input stream", e);
+  }
+}
@@ -0,0 +1,63 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "batch-lookup")
+public class BatchLookupProperties {
+    /**
+     * How long the first id of a batch waits for others before the batch is queried.
+     * Adds at most this much latency to an uncached single-id lookup.
+     */
+    private Duration window = Duration.ofMillis(2);
+
+    /**
+     * Ids per {@code findAllById} query; a full batch is queried without waiting for the window.
+     */
+    private int maxBatchSize = 100;
+
+    /**
+     * Batch queries in flight at once; keep it below the connection pool size.
+     */
+    private int concurrency = 4;
+
+    /**
+     * Most ids accepted by one {@code GET /api/users?ids=...} request.
+     */
+    private int maxIds = 500;
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public int getMaxIds() {
+        return maxIds;
+    }
+
+    public void setMaxIds(int maxIds) {
+        this.maxIds = maxIds;
+    }
+}
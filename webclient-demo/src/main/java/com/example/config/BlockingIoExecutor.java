@@ -0,0 +1,30 @@
+package com.example.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size pool with a bounded queue for blocking JDBC work.
+ * Tasks that do not fit in the queue are rejected and counted instead of piling up.
+ */
+public class BlockingIoExecutor extends ThreadPoolExecutor {
+
+  private final LongAdder rejected = new LongAdder();
+
+  public BlockingIoExecutor(int poolSize, int queueCapacity, ThreadFactory threadFactory) {
+    super(poolSize, poolSize, 60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+    setRejectedExecutionHandler((task, executor) -> {
+      rejected.increment();
+      throw new RejectedExecutionException(
+          "Blocking I/O queue is full (pool " + poolSize + ", capacity " + queueCapacity + ")");
+    });
+  }
+
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+}
@@ -0,0 +1,42 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "blocking-io")
+public class BlockingIoProperties {
+    /**
+     * Worker count; 0 sizes the pool to the Hikari maximum pool size.
+     */
+    private int poolSize;
+    private int queueCapacity = 1000;
+    /**
+     * Run workers on virtual threads (requires Java 21, ignored otherwise).
+     */
+    private boolean virtualThreads;
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class BlockingIoSchedulerConfig {
+
+  private static final Logger logger = LoggerFactory.getLogger(BlockingIoSchedulerConfig.class);
+  private static final String THREAD_PREFIX = "blocking-io-";
+
+  @Bean
+  public BlockingIoExecutor blockingIoExecutor(BlockingIoProperties properties,
+                                               @Value("${spring.datasource.hikari.maximum-pool-size:10}") int hikariPoolSize) {
+    // More workers than connections would only make threads wait inside Hikari
+    int poolSize = properties.getPoolSize() > 0 ? properties.getPoolSize() : hikariPoolSize;
+    ThreadFactory threadFactory = properties.isVirtualThreads() ? virtualThreadFactory(THREAD_PREFIX) : null;
+    if (threadFactory == null) {
+      threadFactory = platformThreadFactory();
+    }
+    logger.info("Blocking I/O pool: {} workers, queue capacity {}, virtual threads {}",
+        poolSize, properties.getQueueCapacity(), properties.isVirtualThreads());
+    return new BlockingIoExecutor(poolSize, properties.getQueueCapacity(), threadFactory);
+  }
+
+  @Bean(destroyMethod = "dispose")
+  public Scheduler blockingIoScheduler(BlockingIoExecutor blockingIoExecutor) {
+    return Schedulers.fromExecutorService(blockingIoExecutor, "blocking-io");
+  }
+
+  /**
+   * Pool size, active threads and queue depth of the blocking pool, plus how often it turned work away.
+   */
+  @Bean
+  public MeterBinder blockingIoMetrics(BlockingIoExecutor blockingIoExecutor) {
+    return registry -> {
+      new ExecutorServiceMetrics(blockingIoExecutor, "blocking-io", Tags.empty()).bindTo(registry);
+      FunctionCounter.builder("blocking.io.rejected", blockingIoExecutor, BlockingIoExecutor::getRejectedCount)
+          .description("Tasks rejected because the blocking I/O queue was full")
+          .register(registry);
+    };
+  }
+
+  private static ThreadFactory platformThreadFactory() {
+    AtomicInteger counter = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, THREAD_PREFIX + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * Looked up reflectively so the project keeps compiling for Java 17.
+   */
+  static ThreadFactory virtualThreadFactory(String namePrefix) {
+    try {
+      Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+      return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+    } catch (ReflectiveOperationException e) {
+      logger.warn("Virtual threads are not available on Java {}, using platform threads",
+          Runtime.version().feature());
+      return null;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "existence-filter")
+public class ExistenceFilterProperties {
+    /**
+     * When disabled every existence check goes to the database.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Minimum capacity of each filter; a rebuild sizes for twice the current row count if larger.
+     */
+    private long expectedInsertions = 100_000;
+
+    private double falsePositiveProbability = 0.01;
+
+    /**
+     * How often the filters are rebuilt from the table. Drops deleted or renamed values and picks
+     * up rows written by other nodes, so it bounds how stale an "absent" answer can be.
+     */
+    private Duration rebuildInterval = Duration.ofMinutes(5);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public void setExpectedInsertions(long expectedInsertions) {
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    public double getFalsePositiveProbability() {
+        return falsePositiveProbability;
+    }
+
+    public void setFalsePositiveProbability(double falsePositiveProbability) {
+        this.falsePositiveProbability = falsePositiveProbability;
+    }
+
+    public Duration getRebuildInterval() {
+        return rebuildInterval;
+    }
+
+    public void setRebuildInterval(Duration rebuildInterval) {
+        this.rebuildInterval = rebuildInterval;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "http-cache")
+public class HttpCacheProperties {
+    /**
+     * Serve {@code GET /api/users} from JSON and gzip bytes kept until the next save, instead of
+     * querying and serializing every time. Costs two copies of the collection in memory.
+     */
+    private boolean precompressed = false;
+
+    public boolean isPrecompressed() {
+        return precompressed;
+    }
+
+    public void setPrecompressed(boolean precompressed) {
+        this.precompressed = precompressed;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.config;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared Reactor Netty connector for every {@code WebClient} in the application.
+ * Spring Boot applies a {@link ClientHttpConnector} bean to each auto-configured
+ * {@code WebClient.Builder}, so the auth client picks it up as well.
+ */
+@Configuration
+public class HttpClientConfig {
+
+  @Bean(destroyMethod = "dispose")
+  public ConnectionProvider connectionProvider(HttpClientProperties properties) {
+    return ConnectionProvider.builder("upstream")
+        .maxConnections(properties.getMaxConnections())
+        .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+        .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+        .maxIdleTime(properties.getMaxIdleTime())
+        .maxLifeTime(properties.getMaxLifeTime())
+        .evictInBackground(properties.getEvictInBackground())
+        .metrics(properties.isMetricsEnabled())
+        .build();
+  }
+
+  @Bean
+  public ClientHttpConnector clientHttpConnector(ConnectionProvider connectionProvider,
+                                                 HttpClientProperties properties) {
+    HttpClient httpClient = HttpClient.create(connectionProvider)
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+        .option(ChannelOption.SO_KEEPALIVE, true)
+        .responseTimeout(properties.getResponseTimeout())
+        .compress(properties.isCompress())
+        .metrics(properties.isMetricsEnabled(), HttpClientConfig::stripQuery)
+        .doOnConnected(connection -> connection
+            .addHandlerLast(new ReadTimeoutHandler(properties.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS))
+            .addHandlerLast(new WriteTimeoutHandler(properties.getWriteTimeout().toMillis(), TimeUnit.MILLISECONDS)));
+    if (properties.isH2c()) {
+      httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+    }
+    return new ReactorClientHttpConnector(httpClient);
+  }
+
+  // Keeps the uri tag of the client metrics low-cardinality
+  private static String stripQuery(String uri) {
+    int query = uri.indexOf('?');
+    return query < 0 ? uri : uri.substring(0, query);
+  }
+}
@@ -0,0 +1,21 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "ingestion")
+public class IngestionProperties {
+    /**
+     * Number of users written to the database per chunk when streaming the upstream feed.
+     */
+    private int chunkSize = 500;
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.config;
+
+import com.example.repository.UserRepository;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+/**
+ * User is also mapped for R2DBC, so JPA would otherwise claim ReactiveUserRepository as well and
+ * refuse to start. {@code @DataJpaTest} slices skip this class and have to import it.
+ */
+@Configuration
+@EnableJpaRepositories(basePackageClasses = UserRepository.class,
+    excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ReactiveCrudRepository.class))
+public class JpaRepositoryConfig {
+}
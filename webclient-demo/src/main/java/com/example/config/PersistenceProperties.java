@@ -0,0 +1,52 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "persistence")
+public class PersistenceProperties {
+    /**
+     * Number of rows sent to the database per JDBC batch by the bulk upsert path.
+     */
+    private int batchSize = 500;
+    /**
+     * Rows fetched per round-trip when streaming the users table through a JDBC cursor.
+     * Not used on MySQL, where the stream reads rows one at a time.
+     */
+    private int fetchSize = 500;
+    private int defaultPageSize = 100;
+    private int maxPageSize = 1000;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public int getDefaultPageSize() {
+        return defaultPageSize;
+    }
+
+    public void setDefaultPageSize(int defaultPageSize) {
+        this.defaultPageSize = defaultPageSize;
+    }
+
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+
+    public void setMaxPageSize(int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+}
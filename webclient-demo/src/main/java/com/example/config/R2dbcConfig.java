@@ -0,0 +1,37 @@
+package com.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+@Configuration
+@Profile("r2dbc")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class R2dbcConfig {
+
+  /**
+   * DataSource auto-configuration backs off once there is an R2DBC ConnectionFactory, which
+   * would take JPA and JdbcTemplate down with it; build the same Hikari pool it would have.
+   */
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource dataSource(DataSourceProperties properties) {
+    return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  /**
+   * The R2DBC transaction manager is deliberately not a bean: JPA's auto-configured
+   * transaction manager backs off as soon as any TransactionManager bean exists.
+   */
+  @Bean
+  public TransactionalOperator r2dbcTransactionalOperator(ConnectionFactory connectionFactory) {
+    return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+  }
+}
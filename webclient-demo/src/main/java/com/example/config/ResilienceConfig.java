@@ -0,0 +1,73 @@
+package com.example.config;
+
+import com.example.resilience.AdaptiveConcurrencyLimiter;
+import com.example.resilience.CircuitBreaker;
+import com.example.resilience.ResilienceFilter;
+import com.example.resilience.RetryBudget;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ResilienceConfig {
+
+  @Bean
+  @ConditionalOnProperty(prefix = "resilience.circuit-breaker", name = "enabled", matchIfMissing = true)
+  public CircuitBreaker upstreamCircuitBreaker(ResilienceProperties properties) {
+    ResilienceProperties.CircuitBreaker config = properties.getCircuitBreaker();
+    return new CircuitBreaker(
+        config.getFailureRateThreshold(),
+        config.getMinimumCalls(),
+        config.getWindow().toNanos(),
+        config.getOpenDuration().toNanos(),
+        config.getHalfOpenCalls(),
+        System::nanoTime);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "resilience.limiter", name = "enabled", matchIfMissing = true)
+  public AdaptiveConcurrencyLimiter upstreamConcurrencyLimiter(ResilienceProperties properties) {
+    ResilienceProperties.Limiter config = properties.getLimiter();
+    return new AdaptiveConcurrencyLimiter(
+        config.getInitialLimit(),
+        config.getMinLimit(),
+        config.getMaxLimit(),
+        config.getBackoffRatio(),
+        config.getLatencyThreshold().toNanos());
+  }
+
+  @Bean
+  public RetryBudget upstreamRetryBudget(RetryProperties properties) {
+    return new RetryBudget(properties.getBudgetRatio(), properties.getBudgetCapacity());
+  }
+
+  @Bean
+  public ResilienceFilter upstreamResilienceFilter(ObjectProvider<CircuitBreaker> circuitBreaker,
+                                                   ObjectProvider<AdaptiveConcurrencyLimiter> limiter,
+                                                   RetryBudget retryBudget) {
+    return new ResilienceFilter(circuitBreaker.getIfAvailable(), limiter.getIfAvailable(), retryBudget);
+  }
+
+  /**
+   * Gauges for the breaker state (0 closed, 1 open, 2 half-open), the current limit and
+   * in-flight calls, and the retries the budget would still allow.
+   */
+  @Bean
+  public MeterBinder upstreamResilienceMetrics(ObjectProvider<CircuitBreaker> circuitBreaker,
+                                               ObjectProvider<AdaptiveConcurrencyLimiter> limiter,
+                                               RetryBudget retryBudget) {
+    return registry -> {
+      circuitBreaker.ifAvailable(breaker -> Gauge.builder("upstream.circuit.state", breaker, b -> b.getState().ordinal())
+          .register(registry));
+      limiter.ifAvailable(l -> {
+        Gauge.builder("upstream.limiter.limit", l, AdaptiveConcurrencyLimiter::getLimit).register(registry);
+        Gauge.builder("upstream.limiter.in-flight", l, AdaptiveConcurrencyLimiter::getInFlight).register(registry);
+      });
+      Gauge.builder("upstream.retry.budget.available", retryBudget, RetryBudget::getAvailableRetries)
+          .register(registry);
+    };
+  }
+}
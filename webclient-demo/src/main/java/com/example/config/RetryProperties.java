@@ -10,6 +10,15 @@ import java.time.Duration;
 public class RetryProperties {
     private int maxAttempts;
     private Duration delay;
+    /**
+     * Random spread applied to each backoff delay, from 0 (none) to 1.
+     */
+    private double jitter = 0.5;
+    /**
+     * Retry tokens earned per request; retries are refused once the budget is spent.
+     */
+    private double budgetRatio = 0.2;
+    private int budgetCapacity = 10;
 
     public int getMaxAttempts() {
         return maxAttempts;
@@ -26,4 +35,28 @@ public class RetryProperties {
     public void setDelay(Duration delay) {
         this.delay = delay;
     }
+
+    public double getJitter() {
+        return jitter;
+    }
+
+    public void setJitter(double jitter) {
+        this.jitter = jitter;
+    }
+
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    public void setBudgetRatio(double budgetRatio) {
+        this.budgetRatio = budgetRatio;
+    }
+
+    public int getBudgetCapacity() {
+        return budgetCapacity;
+    }
+
+    public void setBudgetCapacity(int budgetCapacity) {
+        this.budgetCapacity = budgetCapacity;
+    }
 }
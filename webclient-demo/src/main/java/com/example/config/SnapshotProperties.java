@@ -0,0 +1,36 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "snapshot")
+public class SnapshotProperties {
+    /**
+     * Serve user reads from an in-memory snapshot of the table, rebuilt after every sync.
+     */
+    private boolean enabled = false;
+
+    /**
+     * How often the snapshot is also rebuilt on a timer, to pick up rows written by other nodes.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(5);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+}
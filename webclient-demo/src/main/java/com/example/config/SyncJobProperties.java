@@ -0,0 +1,122 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "sync.job")
+public class SyncJobProperties {
+    /**
+     * Whether the scheduled sync runs on this node. Manual jobs are always available.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How often the scheduled sync is submitted. Submitting does not wait for the sync, so this
+     * is the time between starts; a sync still running when the next is due is joined instead
+     * of overlapped, and the following one starts an interval later.
+     */
+    private Duration interval = Duration.ofMinutes(15);
+
+    /**
+     * Delay before the first scheduled sync after startup.
+     */
+    private Duration initialDelay = Duration.ofMinutes(1);
+
+    /**
+     * How long a node may hold the sync lock before others may take it over,
+     * e.g. after the holder died. Renewed after every chunk a sync writes, so it must exceed
+     * the longest expected chunk rather than the whole sync.
+     */
+    private Duration lockLease = Duration.ofMinutes(10);
+
+    /**
+     * Minimum time a scheduled sync keeps the lock, so nodes whose schedules fire a little
+     * later in the same interval skip instead of syncing again. Should exceed clock skew.
+     */
+    private Duration lockAtLeastFor = Duration.ofMinutes(1);
+
+    /**
+     * Identifies this node in the lock table; defaults to {@code pid@hostname}.
+     */
+    private String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+    /**
+     * Number of finished jobs kept in memory for status lookups.
+     */
+    private int retainedJobs = 100;
+
+    /**
+     * Syncs that may wait behind the running one; beyond this a new sync displaces a queued one
+     * of lower priority or is rejected. Requests for a sync that is already running or queued
+     * join it instead, so 0 means syncs of a different kind are rejected while one runs.
+     */
+    private int queueCapacity = 1;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public Duration getInitialDelay() {
+        return initialDelay;
+    }
+
+    public void setInitialDelay(Duration initialDelay) {
+        this.initialDelay = initialDelay;
+    }
+
+    public Duration getLockLease() {
+        return lockLease;
+    }
+
+    public void setLockLease(Duration lockLease) {
+        this.lockLease = lockLease;
+    }
+
+    public Duration getLockAtLeastFor() {
+        return lockAtLeastFor;
+    }
+
+    public void setLockAtLeastFor(Duration lockAtLeastFor) {
+        this.lockAtLeastFor = lockAtLeastFor;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public int getRetainedJobs() {
+        return retainedJobs;
+    }
+
+    public void setRetainedJobs(int retainedJobs) {
+        this.retainedJobs = retainedJobs;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.config;
+
+import com.example.dto.SyncJob;
+import com.example.service.SyncJobService;
+import com.example.service.UserSyncCoordinator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "sync.job", name = "enabled", matchIfMissing = true)
+public class SyncSchedulingConfig {
+
+  @Autowired
+  private SyncJobService syncJobService;
+
+  /**
+   * Every node fires; the database lock taken by {@link UserSyncCoordinator} lets only one of
+   * them sync.
+   */
+  @Scheduled(initialDelayString = "#{@syncJobProperties.initialDelay.toMillis()}",
+      fixedRateString = "#{@syncJobProperties.interval.toMillis()}")
+  public void scheduledSync() {
+    syncJobService.submit(SyncJob.Trigger.SCHEDULED);
+  }
+}
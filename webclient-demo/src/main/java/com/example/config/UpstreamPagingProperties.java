@@ -0,0 +1,72 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "external.api.paging")
+public class UpstreamPagingProperties {
+    /**
+     * Fetch {@code /users} page by page instead of as one response.
+     */
+    private boolean enabled;
+    private int pageSize = 100;
+    /**
+     * Maximum number of page requests in flight at once.
+     */
+    private int concurrency = 4;
+    /**
+     * Safety limit on the number of pages requested in one sync.
+     */
+    private int maxPages = 10_000;
+    private String pageParam = "_page";
+    private String sizeParam = "_limit";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public int getMaxPages() {
+        return maxPages;
+    }
+
+    public void setMaxPages(int maxPages) {
+        this.maxPages = maxPages;
+    }
+
+    public String getPageParam() {
+        return pageParam;
+    }
+
+    public void setPageParam(String pageParam) {
+        this.pageParam = pageParam;
+    }
+
+    public String getSizeParam() {
+        return sizeParam;
+    }
+
+    public void setSizeParam(String sizeParam) {
+        this.sizeParam = sizeParam;
+    }
+}
@@ -1,12 +1,17 @@
 package com.example.config;
 
+import com.example.resilience.CallNotPermittedException;
+import com.example.resilience.ResilienceFilter;
+import com.example.resilience.RetryBudget;
+import com.example.service.AuthApiClientService;
+import com.example.service.BearerTokenFilter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
-
-import java.time.Duration;
+import reactor.util.retry.RetryBackoffSpec;
 
 @Configuration
 public class WebClientConfig {
@@ -15,14 +20,31 @@ public class WebClientConfig {
   private String baseUrl;
 
   @Bean
-  public WebClient webClient() {
-    return WebClient.builder()
+  public WebClient webClient(WebClient.Builder webClientBuilder,
+                             AuthApiClientService authService,
+                             ResilienceFilter upstreamResilienceFilter) {
+    // The auto-configured builder carries the pooled connector from HttpClientConfig
+    return webClientBuilder
         .baseUrl(baseUrl)
+        .filter(new BearerTokenFilter(authService))
+        .filter(upstreamResilienceFilter)
         .build();
   }
 
+  /**
+   * Jittered backoff for upstream calls. Calls refused locally by the circuit breaker or limiter
+   * are not retried, and every retry spends from the shared retry budget. The budget is spent
+   * just before a retry, after the attempts check, since Reactor applies the error filter before
+   * it and the last failure would otherwise spend a token on a retry that never happens. When
+   * the budget is empty the call fails with its last error.
+   */
   @Bean
-  public Retry retryConfig(RetryProperties properties) {
-    return Retry.backoff(properties.getMaxAttempts(), properties.getDelay());
+  public RetryBackoffSpec retryConfig(RetryProperties properties, RetryBudget upstreamRetryBudget) {
+    return Retry.backoff(properties.getMaxAttempts(), properties.getDelay())
+        .jitter(properties.getJitter())
+        .filter(throwable -> !(throwable instanceof CallNotPermittedException))
+        .doBeforeRetryAsync(signal -> upstreamRetryBudget.tryAcquireRetry()
+            ? Mono.empty()
+            : Mono.error(signal.failure()));
   }
 }
\ No newline at end of file
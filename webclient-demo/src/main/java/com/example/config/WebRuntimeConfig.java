@@ -0,0 +1,49 @@
+package com.example.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runtime modes for the web layer, selected by profile:
+ * <ul>
+ *   <li>default: Servlet on Tomcat's platform thread pool; blocking calls run on the request thread</li>
+ *   <li>{@code vthreads}: Servlet with one virtual thread per request; blocking calls run in place</li>
+ *   <li>{@code webflux}: WebFlux on Reactor Netty; blocking calls hop to the blocking I/O pool
+ *       ({@link com.example.controller.UserWebFluxRoutes})</li>
+ * </ul>
+ */
+@Configuration
+public class WebRuntimeConfig {
+
+  private static final Logger logger = LoggerFactory.getLogger(WebRuntimeConfig.class);
+
+  /**
+   * Both Tomcat and Netty are on the classpath and Boot prefers Tomcat for reactive apps too,
+   * so the Netty factory is declared explicitly.
+   */
+  @Bean
+  @Profile("webflux")
+  public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+    return new NettyReactiveWebServerFactory();
+  }
+
+  @Bean
+  @Profile("vthreads")
+  public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+    ThreadFactory threadFactory = BlockingIoSchedulerConfig.virtualThreadFactory("http-vt-");
+    return protocolHandler -> {
+      if (threadFactory == null) {
+        logger.warn("vthreads profile is active but virtual threads are unavailable; keeping Tomcat's thread pool");
+        return;
+      }
+      protocolHandler.setExecutor(command -> threadFactory.newThread(command).start());
+    };
+  }
+}
@@ -0,0 +1,62 @@
+package com.example.controller;
+
+import com.example.entity.User;
+import com.example.service.ReactiveUserService;
+import com.example.service.SyncRejectedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * The fetch-and-save and read endpoints of {@link UserController}, persisted through R2DBC.
+ * Served next to the JPA endpoints so both modes can be compared on one instance.
+ */
+@RestController
+@Profile("r2dbc")
+@RequestMapping("/api/reactive/users")
+public class ReactiveUserController {
+
+  @Autowired
+  private ReactiveUserService reactiveUserService;
+
+  /**
+   * Fetch and save all users, joining an R2DBC fetch-and-save that is already running or queued.
+   * A 429 means the sync queue is full; retry after the Retry-After delay.
+   */
+  @PostMapping("/fetch-and-save")
+  public Mono<ResponseEntity<Map<String, Long>>> fetchAndSaveUsers() {
+    return reactiveUserService.fetchAndSaveUsers()
+        .map(saved -> ResponseEntity.ok(Map.of("saved", saved)))
+        .onErrorResume(SyncRejectedException.class, error -> Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, UserController.SYNC_RETRY_AFTER_SECONDS)
+            .build()))
+        .onErrorReturn(ResponseEntity.internalServerError().build());
+  }
+
+  /**
+   * All users as a stream, or one keyset page when {@code afterId} or {@code limit} is given.
+   */
+  @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  public Flux<User> getUsers(@RequestParam(required = false) Long afterId,
+                             @RequestParam(required = false) Integer limit) {
+    if (afterId == null && limit == null) {
+      return reactiveUserService.getAllUsers();
+    }
+    return reactiveUserService.getUsersPage(afterId, limit);
+  }
+
+  @GetMapping("/{id}")
+  public Mono<ResponseEntity<User>> getUserById(@PathVariable Long id) {
+    return reactiveUserService.getUserById(id)
+        .map(ResponseEntity::ok)
+        .defaultIfEmpty(ResponseEntity.notFound().build());
+  }
+}
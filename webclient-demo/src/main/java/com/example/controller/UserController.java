@@ -1,40 +1,225 @@
 package com.example.controller;
 
+import com.example.dto.IngestionProgress;
+import com.example.dto.SyncJob;
+import com.example.dto.SyncReport;
 import com.example.entity.User;
+import com.example.service.SyncJobService;
+import com.example.service.SyncRejectedException;
+import com.example.service.SyncRun;
 import com.example.service.UserApiClientService;
+import com.example.service.UserResponseCache;
+import com.example.service.UserSyncCoordinator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.net.URI;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Blocking handlers run on the request thread. Under the {@code webflux} profile
+ * {@link UserWebFluxRoutes} serves them from the blocking I/O pool instead.
+ */
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
+  static final String NEXT_AFTER_ID_HEADER = "X-Next-After-Id";
+  static final String SYNC_RETRY_AFTER_SECONDS = "5";
+
   @Autowired
   private UserApiClientService userApiClientService;
 
+  @Autowired
+  private SyncJobService syncJobService;
+
+  @Autowired
+  private UserSyncCoordinator syncCoordinator;
+
+  /**
+   * Fetch and save all users, joining a fetch-and-save that is already running or queued.
+   * A 429 means the sync queue is full; retry after the Retry-After delay.
+   */
   @PostMapping("/fetch-and-save")
   public Mono<ResponseEntity<List<User>>> fetchAndSaveUsers() {
-    return userApiClientService.fetchAndSaveUsers()
+    return syncCoordinator.fetchAndSaveUsers()
         .map(users -> ResponseEntity.ok(users))
+        .onErrorResume(SyncRejectedException.class, error -> Mono.just(tooManySyncs()))
         .onErrorReturn(ResponseEntity.internalServerError().build());
   }
 
+  /**
+   * Sync incrementally under the sync lock, joining a sync that is already running or queued.
+   * A 409 means another node holds the sync lock.
+   */
+  @PostMapping("/sync")
+  public Mono<ResponseEntity<SyncReport>> syncUsers() {
+    return syncCoordinator.syncUsersIncrementally()
+        .map(ResponseEntity::ok)
+        .defaultIfEmpty(ResponseEntity.status(HttpStatus.CONFLICT).build())
+        .onErrorResume(SyncRejectedException.class, error -> Mono.just(tooManySyncs()))
+        .onErrorReturn(ResponseEntity.internalServerError().build());
+  }
+
+  /**
+   * The running sync, if any, followed by the queued ones in the order they will run.
+   */
+  @GetMapping("/sync-runs")
+  public List<SyncRun<?>> getSyncRuns() {
+    return syncCoordinator.getRuns();
+  }
+
+  /**
+   * Progress of a running or queued sync, streamed until it ends: running counts for a sync,
+   * chunks for an ingest.
+   */
+  @GetMapping(value = "/sync-runs/{runId}/progress", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<Flux<?>> getSyncRunProgress(@PathVariable String runId) {
+    return syncCoordinator.getRun(runId)
+        .<ResponseEntity<Flux<?>>>map(run -> ResponseEntity.ok(run.progress()))
+        .orElse(ResponseEntity.notFound().build());
+  }
+
+  /**
+   * Start a background sync and return at once; poll the returned location for its status.
+   */
+  @PostMapping("/sync-jobs")
+  public ResponseEntity<SyncJob> startSyncJob() {
+    SyncJob job = syncJobService.submit(SyncJob.Trigger.MANUAL);
+    return ResponseEntity.accepted()
+        .location(URI.create("/api/users/sync-jobs/" + job.getId()))
+        .body(job);
+  }
+
+  @GetMapping("/sync-jobs")
+  public List<SyncJob> getSyncJobs() {
+    return syncJobService.getRecentJobs();
+  }
+
+  @GetMapping("/sync-jobs/{jobId}")
+  public ResponseEntity<SyncJob> getSyncJob(@PathVariable String jobId) {
+    return syncJobService.getJob(jobId)
+        .map(ResponseEntity::ok)
+        .orElse(ResponseEntity.notFound().build());
+  }
+
+  /**
+   * Stream the upstream feed into the database, joining an ingest that is already running or
+   * queued; a joining caller's stream starts at the latest chunk. A 429 means the sync queue is
+   * full; retry after the Retry-After delay.
+   */
+  @PostMapping(value = "/ingest", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<Flux<IngestionProgress>> ingestUsers() {
+    SyncRun<IngestionProgress> run;
+    try {
+      run = syncCoordinator.submitIngest();
+    } catch (SyncRejectedException e) {
+      return tooManySyncs();
+    }
+    // Progress completes however the run ends, so append the result to surface its error
+    return ResponseEntity.ok(run.progress().concatWith(run.result().then(Mono.<IngestionProgress>empty())));
+  }
+
+  /**
+   * All users, or one keyset page when {@code afterId} or {@code limit} is given.
+   * Pages carry the cursor for the next page in the {@value #NEXT_AFTER_ID_HEADER} header.
+   * Responses carry the collection ETag, or its gzip variant for the precompressed gzip body; a
+   * matching {@code If-None-Match} gets a 304 after reading only the version.
+   */
   @GetMapping
-  public ResponseEntity<List<User>> getAllUsers() {
-    List<User> users = userApiClientService.getAllUsers();
-    return ResponseEntity.ok(users);
+  public ResponseEntity<?> getAllUsers(@RequestParam(required = false) Long afterId,
+                                       @RequestParam(required = false) Integer limit,
+                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+    String collectionETag = userApiClientService.getUsersETag();
+    if (afterId == null && limit == null) {
+      boolean gzip = userApiClientService.isPrecompressed() && acceptEncoding != null && acceptEncoding.contains("gzip");
+      String eTag = gzip ? UserResponseCache.gzipETag(collectionETag) : collectionETag;
+      if (UserResponseCache.matches(ifNoneMatch, eTag)) {
+        return notModified(eTag);
+      }
+      UserResponseCache.SerializedUsers serialized = userApiClientService.getAllUsersSerialized();
+      if (serialized == null) {
+        return ResponseEntity.ok().eTag(collectionETag).body(userApiClientService.getAllUsers());
+      }
+      ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+          .contentType(MediaType.APPLICATION_JSON)
+          .varyBy(HttpHeaders.ACCEPT_ENCODING);
+      if (gzip) {
+        return response.eTag(serialized.gzipETag()).header(HttpHeaders.CONTENT_ENCODING, "gzip").body(serialized.gzip());
+      }
+      return response.eTag(serialized.eTag()).body(serialized.json());
+    }
+    String pageETag = UserResponseCache.variantETag(collectionETag, afterId, limit);
+    if (UserResponseCache.matches(ifNoneMatch, pageETag)) {
+      return notModified(pageETag);
+    }
+    List<User> page = userApiClientService.getUsersPage(afterId, limit);
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(pageETag);
+    if (!page.isEmpty()) {
+      response.header(NEXT_AFTER_ID_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+    }
+    return response.body(page);
   }
 
-  @GetMapping("/{id}")
-  public ResponseEntity<User> getUserById(@PathVariable Long id) {
-    User user = userApiClientService.getUserById(id);
-    if (user != null) {
-      return ResponseEntity.ok(user);
+  /**
+   * The users with the given ids ({@code ?ids=1,2,3}) in request order; unknown ids are skipped.
+   */
+  @GetMapping(params = "ids")
+  public Mono<ResponseEntity<List<User>>> getUsersByIds(@RequestParam List<Long> ids) {
+    return userApiClientService.getUsersByIds(ids)
+        .map(ResponseEntity::ok)
+        .onErrorResume(IllegalArgumentException.class, error -> Mono.just(ResponseEntity.badRequest().build()));
+  }
+
+  @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public Flux<User> streamUsers() {
+    return userApiClientService.streamAllUsers();
+  }
+
+  /**
+   * Uniqueness check for the given username and/or email, e.g. {@code {"username": false}}.
+   */
+  @GetMapping("/exists")
+  public ResponseEntity<Map<String, Boolean>> exists(@RequestParam(required = false) String username,
+                                                     @RequestParam(required = false) String email) {
+    if (username == null && email == null) {
+      return ResponseEntity.badRequest().build();
     }
-    return ResponseEntity.notFound().build();
+    Map<String, Boolean> result = new LinkedHashMap<>();
+    if (username != null) {
+      result.put("username", userApiClientService.usernameExists(username));
+    }
+    if (email != null) {
+      result.put("email", userApiClientService.emailExists(email));
+    }
+    return ResponseEntity.ok(result);
+  }
+
+  @GetMapping("/{id}")
+  public Mono<ResponseEntity<User>> getUserById(@PathVariable Long id) {
+    // Lookups are coalesced into one query and never block a thread; Spring turns a
+    // matching If-None-Match into a 304 once the ETag is set
+    return userApiClientService.loadUserById(id)
+        .map(user -> ResponseEntity.ok().eTag(UserResponseCache.userETag(user)).body(user))
+        .defaultIfEmpty(ResponseEntity.notFound().build());
+  }
+
+  private static <T> ResponseEntity<T> tooManySyncs() {
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, SYNC_RETRY_AFTER_SECONDS)
+        .build();
+  }
+
+  private static ResponseEntity<?> notModified(String eTag) {
+    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
   }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.example.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.concurrent.Callable;
+
+/**
+ * The blocking GET handlers of {@link UserController} for WebFlux: the same calls, run on the
+ * blocking I/O pool so event loops never block. Router functions are matched before annotated
+ * controllers, so these routes take over from the controller's handlers under this profile.
+ */
+@Configuration
+@Profile("webflux")
+public class UserWebFluxRoutes {
+
+  @Autowired
+  private UserController userController;
+
+  @Autowired
+  private Scheduler blockingIoScheduler;
+
+  @Bean
+  public RouterFunction<ServerResponse> blockingUserRoutes() {
+    return RouterFunctions.route()
+        .GET("/api/users/exists", request -> blocking(() -> userController.exists(
+            request.queryParam("username").orElse(null),
+            request.queryParam("email").orElse(null))))
+        // ?ids= lookups never block and stay with the controller
+        .GET("/api/users", RequestPredicates.queryParam("ids", ids -> true).negate(),
+            request -> blocking(() -> userController.getAllUsers(
+                request.queryParam("afterId").map(Long::valueOf).orElse(null),
+                request.queryParam("limit").map(Integer::valueOf).orElse(null),
+                request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH),
+                request.headers().firstHeader(HttpHeaders.ACCEPT_ENCODING))))
+        .build();
+  }
+
+  private Mono<ServerResponse> blocking(Callable<ResponseEntity<?>> call) {
+    return Mono.fromCallable(call)
+        .subscribeOn(blockingIoScheduler)
+        .flatMap(UserWebFluxRoutes::toServerResponse)
+        .onErrorResume(NumberFormatException.class, error -> ServerResponse.badRequest().build());
+  }
+
+  private static Mono<ServerResponse> toServerResponse(ResponseEntity<?> entity) {
+    ServerResponse.BodyBuilder response = ServerResponse.status(entity.getStatusCode())
+        .headers(headers -> headers.addAll(entity.getHeaders()));
+    return entity.hasBody() ? response.bodyValue(entity.getBody()) : response.build();
+  }
+}
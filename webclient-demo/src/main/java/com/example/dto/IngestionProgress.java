@@ -0,0 +1,40 @@
+package com.example.dto;
+
+public class IngestionProgress {
+    private long chunk;
+    private int chunkSize;
+    private long totalIngested;
+
+    public IngestionProgress() {
+    }
+
+    public IngestionProgress(long chunk, int chunkSize, long totalIngested) {
+        this.chunk = chunk;
+        this.chunkSize = chunkSize;
+        this.totalIngested = totalIngested;
+    }
+
+    public long getChunk() {
+        return chunk;
+    }
+
+    public void setChunk(long chunk) {
+        this.chunk = chunk;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public long getTotalIngested() {
+        return totalIngested;
+    }
+
+    public void setTotalIngested(long totalIngested) {
+        this.totalIngested = totalIngested;
+    }
+}
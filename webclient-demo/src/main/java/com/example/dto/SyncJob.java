@@ -0,0 +1,94 @@
+package com.example.dto;
+
+import java.time.Instant;
+
+/**
+ * Status of one sync run. Updated by the job while it runs and read by status requests,
+ * hence the volatile fields.
+ */
+public class SyncJob {
+
+    public enum Trigger {
+        SCHEDULED, MANUAL
+    }
+
+    public enum Status {
+        RUNNING, SUCCEEDED, FAILED, SKIPPED
+    }
+
+    private final String id;
+    private final Trigger trigger;
+    private final String node;
+    private final Instant startedAt;
+    private volatile Status status = Status.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile SyncReport report = new SyncReport();
+    private volatile String message;
+
+    public SyncJob(String id, Trigger trigger, String node, Instant startedAt) {
+        this.id = id;
+        this.trigger = trigger;
+        this.node = node;
+        this.startedAt = startedAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Trigger getTrigger() {
+        return trigger;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Counts so far while running, final counts once finished.
+     */
+    public SyncReport getReport() {
+        return report;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isFinished() {
+        return status != Status.RUNNING;
+    }
+
+    public void progress(SyncReport running) {
+        this.report = new SyncReport(running.getInserted(), running.getUpdated(),
+                running.getUnchanged(), running.getDeletedUpstream());
+    }
+
+    public void finish(Status status, String message) {
+        this.message = message;
+        this.finishedAt = Instant.now();
+        this.status = status;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncJob{" +
+            "id='" + id + '\'' +
+            ", trigger=" + trigger +
+            ", status=" + status +
+            ", report=" + report +
+            '}';
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.dto;
+
+public class SyncReport {
+    private long inserted;
+    private long updated;
+    private long unchanged;
+    private long deletedUpstream;
+
+    public SyncReport() {
+    }
+
+    public SyncReport(long inserted, long updated, long unchanged, long deletedUpstream) {
+        this.inserted = inserted;
+        this.updated = updated;
+        this.unchanged = unchanged;
+        this.deletedUpstream = deletedUpstream;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    public long getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(long unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public long getDeletedUpstream() {
+        return deletedUpstream;
+    }
+
+    public void setDeletedUpstream(long deletedUpstream) {
+        this.deletedUpstream = deletedUpstream;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncReport{" +
+            "inserted=" + inserted +
+            ", updated=" + updated +
+            ", unchanged=" + unchanged +
+            ", deletedUpstream=" + deletedUpstream +
+            '}';
+    }
+}
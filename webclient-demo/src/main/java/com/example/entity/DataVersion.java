@@ -0,0 +1,46 @@
+package com.example.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * One row per versioned data set, bumped in the same transaction as every write to it, so all
+ * replicas agree on whether the data changed. Written with plain SQL; the entity only declares
+ * the table.
+ */
+@Entity
+@Table(name = "data_versions")
+public class DataVersion {
+
+  @Id
+  @Column(length = 64)
+  private String name;
+
+  @Column(nullable = false)
+  private long version;
+
+  // Constructors
+  public DataVersion() {
+  }
+
+  public DataVersion(String name, long version) {
+    this.name = name;
+    this.version = version;
+  }
+
+  // Getters and Setters
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public void setVersion(long version) {
+    this.version = version;
+  }
+}
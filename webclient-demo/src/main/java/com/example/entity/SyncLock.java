@@ -0,0 +1,67 @@
+package com.example.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * One row per named lock. A node holds the lock while {@code lockedUntil} is in the future;
+ * taking it is a conditional UPDATE, so the database decides which node wins.
+ */
+@Entity
+@Table(name = "sync_locks")
+public class SyncLock {
+
+  @Id
+  @Column(length = 64)
+  private String name;
+
+  @Column(nullable = false)
+  private Instant lockedUntil;
+
+  private Instant lockedAt;
+
+  private String lockedBy;
+
+  // Constructors
+  public SyncLock() {
+  }
+
+  public SyncLock(String name, Instant lockedUntil) {
+    this.name = name;
+    this.lockedUntil = lockedUntil;
+  }
+
+  // Getters and Setters
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public Instant getLockedUntil() {
+    return lockedUntil;
+  }
+
+  public void setLockedUntil(Instant lockedUntil) {
+    this.lockedUntil = lockedUntil;
+  }
+
+  public Instant getLockedAt() {
+    return lockedAt;
+  }
+
+  public void setLockedAt(Instant lockedAt) {
+    this.lockedAt = lockedAt;
+  }
+
+  public String getLockedBy() {
+    return lockedBy;
+  }
+
+  public void setLockedBy(String lockedBy) {
+    this.lockedBy = lockedBy;
+  }
+}
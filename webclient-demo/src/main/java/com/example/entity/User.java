@@ -1,17 +1,34 @@
 package com.example.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
+// The cache annotations only take effect with the l2cache profile, which turns on Hibernate's second-level cache.
+// The Spring Data relational annotations map the same class for the R2DBC repository (r2dbc profile).
 @Entity
 @Table(name = "users")
+@org.springframework.data.relational.core.mapping.Table("users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
 public class User {
 
+  public static final String CACHE_REGION = "users";
+  public static final String NATURAL_ID_CACHE_REGION = "users-natural-id";
+  public static final String QUERY_CACHE_REGION = "users-queries";
+
   @Id
+  @org.springframework.data.annotation.Id
   private Long id;
 
   @Column(nullable = false)
   private String name;
 
+  // Usernames can change upstream, so the natural id is mutable
+  @NaturalId(mutable = true)
   @Column(nullable = false, unique = true)
   private String username;
 
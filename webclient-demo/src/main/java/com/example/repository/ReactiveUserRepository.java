@@ -0,0 +1,24 @@
+package com.example.repository;
+
+import com.example.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link UserRepository}; only active with the r2dbc profile.
+ */
+@Repository
+public interface ReactiveUserRepository extends R2dbcRepository<User, Long>, ReactiveUserUpsertRepository {
+  Mono<User> findByUsername(String username);
+
+  Mono<User> findByEmail(String email);
+
+  Mono<Boolean> existsByUsername(String username);
+
+  Mono<Boolean> existsByEmail(String email);
+
+  Flux<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+}
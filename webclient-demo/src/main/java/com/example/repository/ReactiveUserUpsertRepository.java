@@ -0,0 +1,20 @@
+package com.example.repository;
+
+import com.example.entity.User;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ReactiveUserUpsertRepository {
+
+  /**
+   * Insert or update all users in one batched statement.
+   * {@code save} cannot do this: with upstream-assigned ids every user looks existing and is UPDATEd.
+   *
+   * The same guarded upsert as {@link UserJdbcRepository#upsertAll}; run it in a transaction so
+   * a {@link org.springframework.dao.DuplicateKeyException} leaves nothing written.
+   *
+   * @return the number of users written
+   */
+  Mono<Integer> upsertAll(List<User> users);
+}
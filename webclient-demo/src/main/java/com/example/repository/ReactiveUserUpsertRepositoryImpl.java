@@ -0,0 +1,53 @@
+package com.example.repository;
+
+import com.example.entity.User;
+import io.r2dbc.spi.Statement;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+class ReactiveUserUpsertRepositoryImpl implements ReactiveUserUpsertRepository {
+
+  private final DatabaseClient databaseClient;
+
+  ReactiveUserUpsertRepositoryImpl(DatabaseClient databaseClient) {
+    this.databaseClient = databaseClient;
+  }
+
+  @Override
+  public Mono<Integer> upsertAll(List<User> users) {
+    if (users.isEmpty()) {
+      return Mono.just(0);
+    }
+    List<Long> ids;
+    try {
+      ids = UserJdbcRepository.distinctIds(users);
+    } catch (IllegalArgumentException e) {
+      return Mono.error(e);
+    }
+    // Statement.add() batches the bindings, like JdbcTemplate.batchUpdate on the blocking path
+    return databaseClient.inConnectionMany(connection -> {
+          Statement statement = connection.createStatement(UserJdbcRepository.UPSERT_SQL);
+          for (int i = 0; i < users.size(); i++) {
+            if (i > 0) {
+              statement.add();
+            }
+            User user = users.get(i);
+            statement.bind(0, user.getId())
+                .bind(1, user.getName())
+                .bind(2, user.getUsername())
+                .bind(3, user.getEmail());
+          }
+          return Flux.from(statement.execute()).flatMap(result -> result.getRowsUpdated());
+        })
+        .then(databaseClient.sql("SELECT COUNT(*) FROM users WHERE id IN (:ids)")
+            .bind("ids", ids)
+            .map(row -> row.get(0, Long.class))
+            .one())
+        .flatMap(found -> found < ids.size()
+            ? Mono.<Integer>error(UserJdbcRepository.missingIds(ids.size() - found.intValue()))
+            : databaseClient.sql(UserJdbcRepository.BUMP_VERSION_SQL).then().thenReturn(users.size()));
+  }
+}
@@ -0,0 +1,41 @@
+package com.example.repository;
+
+import com.example.entity.SyncLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Lease times are computed from the database clock, never the node's, so skewed clocks on
+ * the replicas cannot let two of them hold the lock at once.
+ */
+@Repository
+public interface SyncLockRepository extends JpaRepository<SyncLock, String> {
+
+  // Returns 1 only for the node whose UPDATE found the lease expired
+  @Transactional
+  @Modifying
+  @Query(value = "UPDATE sync_locks SET locked_until = TIMESTAMPADD(MICROSECOND, :leaseMicros, CURRENT_TIMESTAMP(6)), "
+      + "locked_at = CURRENT_TIMESTAMP(6), locked_by = :owner "
+      + "WHERE name = :name AND locked_until <= CURRENT_TIMESTAMP(6)", nativeQuery = true)
+  int tryAcquire(@Param("name") String name, @Param("owner") String owner, @Param("leaseMicros") long leaseMicros);
+
+  // Extends the lease from now, only for the owner and only while its lease has not run out
+  @Transactional
+  @Modifying
+  @Query(value = "UPDATE sync_locks SET locked_until = TIMESTAMPADD(MICROSECOND, :leaseMicros, CURRENT_TIMESTAMP(6)) "
+      + "WHERE name = :name AND locked_by = :owner AND locked_until > CURRENT_TIMESTAMP(6)", nativeQuery = true)
+  int renew(@Param("name") String name, @Param("owner") String owner, @Param("leaseMicros") long leaseMicros);
+
+  // Keeps the lock until locked_at + heldAtLeastMicros if that is still in the future
+  @Transactional
+  @Modifying
+  @Query(value = "UPDATE sync_locks SET locked_until = "
+      + "GREATEST(CURRENT_TIMESTAMP(6), TIMESTAMPADD(MICROSECOND, :heldAtLeastMicros, locked_at)) "
+      + "WHERE name = :name AND locked_by = :owner", nativeQuery = true)
+  int release(@Param("name") String name, @Param("owner") String owner,
+              @Param("heldAtLeastMicros") long heldAtLeastMicros);
+}
@@ -0,0 +1,217 @@
+package com.example.repository;
+
+import com.example.config.PersistenceProperties;
+import com.example.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Bulk write path for {@link User}.
+ * <p>
+ * {@code JpaRepository.saveAll} issues a SELECT before every INSERT/UPDATE because the id is
+ * assigned by the upstream API. This repository sends batched upserts instead; with
+ * {@code rewriteBatchedStatements=true} on the JDBC URL the MySQL driver collapses each batch
+ * into a single multi-row statement.
+ * <p>
+ * Writes bypass Hibernate, so they evict the affected users from the second-level,
+ * natural-id and query caches themselves.
+ * <p>
+ * {@code ON DUPLICATE KEY UPDATE} also fires on the unique username and email keys, which would
+ * overwrite a different user's row. The update is therefore only applied when the primary key
+ * matched, and a user whose id is then missing is reported as a {@link DuplicateKeyException}.
+ */
+@Repository
+public class UserJdbcRepository {
+
+  static final String UPSERT_SQL =
+      "INSERT INTO users (id, name, username, email) VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+          "name = CASE WHEN id = VALUES(id) THEN VALUES(name) ELSE name END, " +
+          "username = CASE WHEN id = VALUES(id) THEN VALUES(username) ELSE username END, " +
+          "email = CASE WHEN id = VALUES(id) THEN VALUES(email) ELSE email END";
+
+  // Every write to users bumps this row in its own transaction (see DataVersion)
+  static final String BUMP_VERSION_SQL =
+      "INSERT INTO data_versions (name, version) VALUES ('users', 1) ON DUPLICATE KEY UPDATE version = version + 1";
+
+  private static final String SELECT_VERSION_SQL = "SELECT version FROM data_versions WHERE name = 'users'";
+
+  private static final String SELECT_ALL_SQL = "SELECT id, name, username, email FROM users ORDER BY id";
+
+  private static final String COUNT_SQL = "SELECT COUNT(*) FROM users";
+
+  private static final RowMapper<User> USER_ROW_MAPPER = (rs, rowNum) -> new User(
+      rs.getLong("id"),
+      rs.getString("name"),
+      rs.getString("username"),
+      rs.getString("email"));
+
+  private final JdbcTemplate jdbcTemplate;
+  private final PersistenceProperties persistenceProperties;
+  private final Cache secondLevelCache;
+
+  public UserJdbcRepository(JdbcTemplate jdbcTemplate, PersistenceProperties persistenceProperties,
+                            EntityManagerFactory entityManagerFactory) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.persistenceProperties = persistenceProperties;
+    this.secondLevelCache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+  }
+
+  /**
+   * Insert or update all users in batches of {@code persistence.batch-size}.
+   *
+   * @return the number of users written
+   * @throws IllegalArgumentException if a user has no id
+   * @throws DuplicateKeyException if a new user's username or email belongs to another id;
+   *                               nothing is written
+   */
+  @Transactional
+  public int upsertAll(List<User> users) {
+    if (users.isEmpty()) {
+      return 0;
+    }
+    List<Long> ids = distinctIds(users);
+    jdbcTemplate.batchUpdate(UPSERT_SQL, users, persistenceProperties.getBatchSize(), (ps, user) -> {
+      ps.setLong(1, user.getId());
+      ps.setString(2, user.getName());
+      ps.setString(3, user.getUsername());
+      ps.setString(4, user.getEmail());
+    });
+    int batchSize = persistenceProperties.getBatchSize();
+    for (int from = 0; from < ids.size(); from += batchSize) {
+      List<Long> batch = ids.subList(from, Math.min(ids.size(), from + batchSize));
+      Integer found = jdbcTemplate.queryForObject(countIdsSql(batch.size()), Integer.class, batch.toArray());
+      if (found == null || found < batch.size()) {
+        throw missingIds(batch.size() - (found == null ? 0 : found));
+      }
+    }
+    // Last, so the version row is locked for as short a time as possible
+    jdbcTemplate.update(BUMP_VERSION_SQL);
+    evictFromSecondLevelCache(users);
+    return users.size();
+  }
+
+  /**
+   * Version of the users table, bumped by every {@link #upsertAll} on any node; 0 before the first.
+   */
+  public long currentVersion() {
+    List<Long> version = jdbcTemplate.queryForList(SELECT_VERSION_SQL, Long.class);
+    return version.isEmpty() ? 0 : version.get(0);
+  }
+
+  /**
+   * Stream every user in id order through a forward-only cursor with {@code persistence.fetch-size}.
+   * The connection is held until the stream is closed, so callers must close it.
+   * MySQL only honours a positive fetch size with {@code useCursorFetch=true}, which would turn
+   * every statement in the app into a server-side prepared one; there this statement streams
+   * rows one at a time instead ({@link Integer#MIN_VALUE} fetch size).
+   */
+  public Stream<User> streamAll() {
+    return jdbcTemplate.queryForStream(connection -> {
+      PreparedStatement statement = connection.prepareStatement(
+          SELECT_ALL_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      boolean mySql = "MySQL".equals(connection.getMetaData().getDatabaseProductName());
+      statement.setFetchSize(mySql ? Integer.MIN_VALUE : persistenceProperties.getFetchSize());
+      return statement;
+    }, USER_ROW_MAPPER);
+  }
+
+  /**
+   * The users with any of {@code ids}, in no particular order, queried
+   * {@code persistence.batch-size} ids at a time.
+   */
+  public List<User> findAllByIds(List<Long> ids) {
+    List<User> users = new ArrayList<>(ids.size());
+    int batchSize = persistenceProperties.getBatchSize();
+    for (int from = 0; from < ids.size(); from += batchSize) {
+      List<Long> batch = ids.subList(from, Math.min(ids.size(), from + batchSize));
+      users.addAll(jdbcTemplate.query(selectByIdsSql(batch.size()), USER_ROW_MAPPER, batch.toArray()));
+    }
+    return users;
+  }
+
+  public long count() {
+    Long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class);
+    return count == null ? 0 : count;
+  }
+
+  /**
+   * Pass every user in id order to {@code action} and return the table version they were read
+   * at. Both are read in one REPEATABLE READ transaction, so an upsert committed meanwhile is
+   * either in the rows and the version or in neither.
+   */
+  @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+  public long forEachUser(Consumer<User> action) {
+    long version = currentVersion();
+    try (Stream<User> users = streamAll()) {
+      users.forEach(action);
+    }
+    return version;
+  }
+
+  static List<Long> distinctIds(List<User> users) {
+    List<Long> ids = new ArrayList<>(users.size());
+    Set<Long> seen = new HashSet<>();
+    for (User user : users) {
+      if (user.getId() == null) {
+        throw new IllegalArgumentException("Cannot upsert a user without an id: " + user);
+      }
+      if (seen.add(user.getId())) {
+        ids.add(user.getId());
+      }
+    }
+    return ids;
+  }
+
+  static String countIdsSql(int ids) {
+    return "SELECT COUNT(*) FROM users WHERE id IN (" + String.join(", ", Collections.nCopies(ids, "?")) + ")";
+  }
+
+  static String selectByIdsSql(int ids) {
+    return "SELECT id, name, username, email FROM users WHERE id IN ("
+        + String.join(", ", Collections.nCopies(ids, "?")) + ")";
+  }
+
+  static DuplicateKeyException missingIds(int missing) {
+    return new DuplicateKeyException(missing + " new user(s) have a username or email that belongs to another id");
+  }
+
+  /**
+   * Evict now and again after commit, so a reader that cached the old row in between
+   * does not keep it. A no-op unless the second-level cache is enabled.
+   */
+  private void evictFromSecondLevelCache(List<User> users) {
+    Runnable evict = () -> {
+      users.forEach(user -> secondLevelCache.evictEntityData(User.class, user.getId()));
+      secondLevelCache.evictNaturalIdData(User.class);
+      secondLevelCache.evictQueryRegion(User.QUERY_CACHE_REGION);
+    };
+    evict.run();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          evict.run();
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package com.example.repository;
+
+import com.example.entity.User;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+
+  /**
+   * Load by username through Hibernate's natural-id API, which is served from the
+   * natural-id cache when the second-level cache is on.
+   */
+  Optional<User> findByNaturalUsername(String username);
+}
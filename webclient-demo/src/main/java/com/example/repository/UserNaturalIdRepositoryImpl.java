@@ -0,0 +1,24 @@
+package com.example.repository;
+
+import com.example.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  // The session must stay open while the natural id is resolved
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<User> findByNaturalUsername(String username) {
+    return entityManager.unwrap(Session.class)
+        .bySimpleNaturalId(User.class)
+        .loadOptional(username);
+  }
+}
@@ -1,18 +1,35 @@
 package com.example.repository;
 
 import com.example.entity.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
   Optional<User> findByUsername(String username);
 
+  // Query-cached: Hibernate allows one natural id per entity and that is the username
+  @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+      @QueryHint(name = HINT_CACHE_REGION, value = User.QUERY_CACHE_REGION)})
   Optional<User> findByEmail(String email);
 
+  @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+      @QueryHint(name = HINT_CACHE_REGION, value = User.QUERY_CACHE_REGION)})
   boolean existsByUsername(String username);
 
+  @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+      @QueryHint(name = HINT_CACHE_REGION, value = User.QUERY_CACHE_REGION)})
   boolean existsByEmail(String email);
+
+  // Keyset page: seeks on the primary key instead of skipping OFFSET rows
+  List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
 }
\ No newline at end of file
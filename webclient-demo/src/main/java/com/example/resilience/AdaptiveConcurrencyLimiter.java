@@ -0,0 +1,71 @@
+package com.example.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD concurrency limit for upstream calls.
+ * <p>
+ * The limit grows by one while calls succeed fast with the pipe at least half full, and is
+ * multiplied by {@code backoffRatio} when a call fails or its latency, the time the upstream
+ * took to start responding, exceeds the latency threshold.
+ * Calls over the current limit are rejected instead of queueing on the connection pool.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double backoffRatio;
+  private final long latencyThresholdNanos;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile double limit;
+
+  public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                                    long latencyThresholdNanos) {
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.backoffRatio = backoffRatio;
+    this.latencyThresholdNanos = latencyThresholdNanos;
+    this.limit = initialLimit;
+  }
+
+  public boolean tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= (int) limit) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Release a slot; {@code latencyNanos} is ignored when {@code dropped} is true.
+   */
+  public void release(boolean dropped, long latencyNanos) {
+    int inFlightBefore = inFlight.getAndDecrement();
+    synchronized (this) {
+      if (dropped || latencyNanos > latencyThresholdNanos) {
+        limit = Math.max(minLimit, limit * backoffRatio);
+      } else if (inFlightBefore * 2 >= limit) {
+        limit = Math.min(maxLimit, limit + 1);
+      }
+    }
+  }
+
+  /**
+   * Release a slot without feeding the call into the limit, e.g. after a cancellation.
+   */
+  public void releaseIgnored() {
+    inFlight.decrementAndGet();
+  }
+
+  public int getLimit() {
+    return (int) limit;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+}
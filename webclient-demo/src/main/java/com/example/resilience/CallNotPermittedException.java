@@ -0,0 +1,11 @@
+package com.example.resilience;
+
+/**
+ * Raised when the circuit breaker or the concurrency limiter refuses an upstream call.
+ * Such calls are never sent, so they must not be retried.
+ */
+public class CallNotPermittedException extends RuntimeException {
+  public CallNotPermittedException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,127 @@
+package com.example.resilience;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Failure-rate circuit breaker over fixed time windows.
+ * <p>
+ * CLOSED counts calls per window and opens when at least {@code minimumCalls} were made and the
+ * failure rate reached the threshold. OPEN rejects every call until {@code openDuration} has
+ * passed, then HALF_OPEN lets {@code halfOpenCalls} trial calls through: all of them must succeed
+ * to close again, any failure re-opens.
+ */
+public class CircuitBreaker {
+
+  public enum State {
+    CLOSED, OPEN, HALF_OPEN
+  }
+
+  private final int failureRateThreshold;
+  private final int minimumCalls;
+  private final long windowNanos;
+  private final long openNanos;
+  private final int halfOpenCalls;
+  private final LongSupplier nanoTime;
+
+  private State state = State.CLOSED;
+  private long windowStart;
+  private int calls;
+  private int failures;
+  private long openedAt;
+  private int halfOpenPermits;
+  private int halfOpenSuccesses;
+
+  public CircuitBreaker(int failureRateThreshold, int minimumCalls, long windowNanos, long openNanos,
+                        int halfOpenCalls, LongSupplier nanoTime) {
+    this.failureRateThreshold = failureRateThreshold;
+    this.minimumCalls = minimumCalls;
+    this.windowNanos = windowNanos;
+    this.openNanos = openNanos;
+    this.halfOpenCalls = halfOpenCalls;
+    this.nanoTime = nanoTime;
+    this.windowStart = nanoTime.getAsLong();
+  }
+
+  public synchronized boolean tryAcquirePermission() {
+    long now = nanoTime.getAsLong();
+    if (state == State.OPEN && now - openedAt >= openNanos) {
+      state = State.HALF_OPEN;
+      halfOpenPermits = halfOpenCalls;
+      halfOpenSuccesses = 0;
+    }
+    switch (state) {
+      case CLOSED:
+        return true;
+      case HALF_OPEN:
+        if (halfOpenPermits > 0) {
+          halfOpenPermits--;
+          return true;
+        }
+        return false;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Give back a permission that was acquired but not used for a call.
+   */
+  public synchronized void releasePermission() {
+    if (state == State.HALF_OPEN) {
+      halfOpenPermits++;
+    }
+  }
+
+  public synchronized void onSuccess() {
+    if (state == State.HALF_OPEN) {
+      if (++halfOpenSuccesses >= halfOpenCalls) {
+        close();
+      }
+      return;
+    }
+    record(false);
+  }
+
+  public synchronized void onFailure() {
+    if (state == State.HALF_OPEN) {
+      open();
+      return;
+    }
+    record(true);
+  }
+
+  public synchronized State getState() {
+    return state;
+  }
+
+  private void record(boolean failed) {
+    if (state != State.CLOSED) {
+      return;
+    }
+    long now = nanoTime.getAsLong();
+    if (now - windowStart >= windowNanos) {
+      windowStart = now;
+      calls = 0;
+      failures = 0;
+    }
+    calls++;
+    if (failed) {
+      failures++;
+    }
+    if (calls >= minimumCalls && failures * 100 >= failureRateThreshold * calls) {
+      open();
+    }
+  }
+
+  private void open() {
+    state = State.OPEN;
+    openedAt = nanoTime.getAsLong();
+  }
+
+  private void close() {
+    state = State.CLOSED;
+    windowStart = nanoTime.getAsLong();
+    calls = 0;
+    failures = 0;
+  }
+}
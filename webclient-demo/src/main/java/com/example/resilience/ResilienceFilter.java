@@ -0,0 +1,107 @@
+package com.example.resilience;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Guards every exchange with the circuit breaker and the adaptive concurrency limiter, and
+ * feeds the retry budget. 5xx responses and transport errors count as failures.
+ * <p>
+ * A call lasts until its response body has been read, not just until the headers arrive, so
+ * large bodies hold their limiter slot. The latency fed to the limiter is the time to the
+ * response headers, though: reading a large body, or a caller consuming it slowly, says nothing
+ * about upstream congestion. The caller must consume or release the body, as WebClient requires
+ * anyway.
+ */
+public class ResilienceFilter implements ExchangeFilterFunction {
+
+  private final CircuitBreaker circuitBreaker;
+  private final AdaptiveConcurrencyLimiter limiter;
+  private final RetryBudget retryBudget;
+
+  public ResilienceFilter(CircuitBreaker circuitBreaker, AdaptiveConcurrencyLimiter limiter, RetryBudget retryBudget) {
+    this.circuitBreaker = circuitBreaker;
+    this.limiter = limiter;
+    this.retryBudget = retryBudget;
+  }
+
+  @Override
+  public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+    return Mono.defer(() -> {
+      retryBudget.onRequest();
+      if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+        return Mono.error(new CallNotPermittedException("Circuit breaker is open for " + request.url().getHost()));
+      }
+      if (limiter != null && !limiter.tryAcquire()) {
+        if (circuitBreaker != null) {
+          circuitBreaker.releasePermission();
+        }
+        return Mono.error(new CallNotPermittedException("Concurrency limit reached for " + request.url().getHost()));
+      }
+      long start = System.nanoTime();
+      AtomicBoolean completed = new AtomicBoolean();
+      AtomicBoolean responded = new AtomicBoolean();
+      return next.exchange(request)
+          .map(response -> {
+            responded.set(true);
+            long latencyNanos = System.nanoTime() - start;
+            boolean serverError = response.statusCode().is5xxServerError();
+            return response.mutate()
+                .body(body -> body.doFinally(signal -> {
+                  if (signal == SignalType.CANCEL) {
+                    cancel(completed);
+                  } else {
+                    complete(completed, serverError || signal == SignalType.ON_ERROR, latencyNanos);
+                  }
+                }))
+                .build();
+          })
+          .doOnSuccess(response -> {
+            if (response == null) {
+              complete(completed, true, System.nanoTime() - start);
+            }
+          })
+          .doOnError(error -> complete(completed, true, System.nanoTime() - start))
+          .doOnCancel(() -> {
+            // Once the response is out, its body decides when the call ends
+            if (!responded.get()) {
+              cancel(completed);
+            }
+          });
+    });
+  }
+
+  private void complete(AtomicBoolean completed, boolean failed, long latencyNanos) {
+    if (!completed.compareAndSet(false, true)) {
+      return;
+    }
+    if (limiter != null) {
+      limiter.release(failed, latencyNanos);
+    }
+    if (circuitBreaker != null) {
+      if (failed) {
+        circuitBreaker.onFailure();
+      } else {
+        circuitBreaker.onSuccess();
+      }
+    }
+  }
+
+  private void cancel(AtomicBoolean completed) {
+    if (!completed.compareAndSet(false, true)) {
+      return;
+    }
+    if (limiter != null) {
+      limiter.releaseIgnored();
+    }
+    if (circuitBreaker != null) {
+      circuitBreaker.releasePermission();
+    }
+  }
+}
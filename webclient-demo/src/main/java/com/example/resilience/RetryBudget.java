@@ -0,0 +1,43 @@
+package com.example.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that caps retries to a fraction of request volume.
+ * Every request deposits {@code ratio} tokens (up to {@code capacity}) and every retry spends one,
+ * so when the upstream fails hard retries stop instead of multiplying the load.
+ */
+public class RetryBudget {
+
+  private static final long SCALE = 1000;
+
+  private final long depositPerRequest;
+  private final long capacity;
+  private final AtomicLong balance;
+
+  public RetryBudget(double ratio, int capacity) {
+    this.depositPerRequest = Math.round(ratio * SCALE);
+    this.capacity = capacity * SCALE;
+    this.balance = new AtomicLong(this.capacity);
+  }
+
+  public void onRequest() {
+    balance.accumulateAndGet(depositPerRequest, (current, deposit) -> Math.min(capacity, current + deposit));
+  }
+
+  public boolean tryAcquireRetry() {
+    while (true) {
+      long current = balance.get();
+      if (current < SCALE) {
+        return false;
+      }
+      if (balance.compareAndSet(current, current - SCALE)) {
+        return true;
+      }
+    }
+  }
+
+  public double getAvailableRetries() {
+    return (double) balance.get() / SCALE;
+  }
+}
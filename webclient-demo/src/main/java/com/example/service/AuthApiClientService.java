@@ -1,7 +1,11 @@
 package com.example.service;
 
 import com.example.config.RetryProperties;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
@@ -9,72 +13,128 @@ import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.util.retry.Retry;
 
 import java.rmi.ServerException;
-import java.time.LocalDateTime;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.concurrent.atomic.AtomicReference;
 
-@RequiredArgsConstructor
 @Service
 public class AuthApiClientService {
 
+  private static final Logger logger = LoggerFactory.getLogger(AuthApiClientService.class);
+
   private final WebClient webClient;
+  private final WebClient authenticatedWebClient;
   private final String loginEndpoint;
+  private final String refreshEndpoint;
+  private final String username;
+  private final String password;
+  private final Duration renewBefore;
   private final AtomicReference<TokenInfo> currentToken = new AtomicReference<>();
+  private final AtomicReference<Mono<String>> inFlightRefresh = new AtomicReference<>();
+  private final Disposable.Swap scheduledRenewal = Disposables.swap();
   private final RetryProperties retryProperties;
+  private final Clock clock;
+  private final MeterRegistry meterRegistry;
 
+  @Autowired
   public AuthApiClientService(WebClient.Builder webClientBuilder,
                               @Value("${auth.base-url}") String baseUrl,
                               @Value("${auth.login-endpoint:/auth/login}") String loginEndpoint,
-                              RetryProperties retryProperties
+                              @Value("${auth.refresh-endpoint:/auth/refresh}") String refreshEndpoint,
+                              @Value("${auth.api.username:#{null}}") String username,
+                              @Value("${auth.api.password:#{null}}") String password,
+                              @Value("${auth.renew-before:1m}") Duration renewBefore,
+                              RetryProperties retryProperties,
+                              MeterRegistry meterRegistry
+  ) {
+    this(webClientBuilder, baseUrl, loginEndpoint, refreshEndpoint, username, password, renewBefore, retryProperties,
+        Clock.systemUTC(), meterRegistry);
+  }
+
+  public AuthApiClientService(WebClient.Builder webClientBuilder,
+                              String baseUrl,
+                              String loginEndpoint,
+                              String refreshEndpoint,
+                              String username,
+                              String password,
+                              Duration renewBefore,
+                              RetryProperties retryProperties,
+                              Clock clock,
+                              MeterRegistry meterRegistry
   ) {
     this.webClient = webClientBuilder
         .baseUrl(baseUrl)
         .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
         .build();
+    this.authenticatedWebClient = webClient.mutate()
+        .filter(new BearerTokenFilter(this))
+        .build();
     this.loginEndpoint = loginEndpoint;
+    this.refreshEndpoint = refreshEndpoint;
+    this.username = username;
+    this.password = password;
+    this.renewBefore = renewBefore;
     this.retryProperties = retryProperties;
+    this.clock = clock;
+    this.meterRegistry = meterRegistry;
   }
 
   /**
    * Login with username and password
    */
   public Mono<String> login(String username, String password) {
-    LoginRequest loginRequest = new LoginRequest(username, password);
-
-    return webClient.post()
-            .uri(loginEndpoint)
-            .bodyValue(loginRequest)
-            .retrieve()
-            .onStatus(HttpStatusCode::is4xxClientError, response -> {
-              // ✅ ถูกต้อง - return Mono.error() โดยตรง
-              return response.bodyToMono(String.class)
-                      .map(errorBody -> new AuthenticationException("Authentication failed: " + errorBody))
-                      .cast(Throwable.class) // Cast เป็น Throwable
-                      .flatMap(Mono::error); // แล้วค่อย error
-            })
-            .onStatus(HttpStatusCode::is5xxServerError, response -> {
-              // ✅ ถูกต้อง - return Mono.error() โดยตรง
-              return Mono.error(new ServerException("Server error"));
-            })
-            .bodyToMono(LoginResponse.class)
-            .retryWhen(Retry.backoff(retryProperties.getMaxAttempts(), retryProperties.getDelay())
-                    .filter(throwable -> {
-                      return !(throwable instanceof AuthenticationException) &&
-                              !(throwable instanceof WebClientResponseException.Unauthorized);
-                    }))
-            .doOnSuccess(this::storeToken)
+    return requestToken(loginEndpoint, new LoginRequest(username, password))
             .map(LoginResponse::getAccessToken);
   }
 
+  /**
+   * Get a valid access token, refreshing it first when it is missing or about to expire.
+   * Concurrent callers share a single in-flight refresh.
+   */
+  public Mono<String> getValidAccessToken() {
+    TokenInfo token = currentToken.get();
+    if (token != null && !token.isExpired(clock.millis())) {
+      return Mono.just(token.getAccessToken());
+    }
+    return refreshToken();
+  }
+
+  /**
+   * Refresh the token, joining the refresh that is already in flight if there is one.
+   * Uses the stored refresh token when available and falls back to the configured credentials.
+   */
+  public Mono<String> refreshToken() {
+    Mono<String> inFlight = inFlightRefresh.get();
+    if (inFlight != null) {
+      return inFlight;
+    }
+    Sinks.One<String> result = Sinks.one();
+    Mono<String> shared = result.asMono();
+    if (!inFlightRefresh.compareAndSet(null, shared)) {
+      return refreshToken();
+    }
+    // Subscribed here rather than by the caller so a cancelled caller cannot abort the shared refresh
+    renewToken()
+        .doOnSuccess(token -> countRefresh("success"))
+        .doOnError(error -> countRefresh("failure"))
+        .doFinally(signal -> inFlightRefresh.compareAndSet(shared, null))
+        .subscribe(result::tryEmitValue, result::tryEmitError, result::tryEmitEmpty);
+    return shared;
+  }
+
   /**
    * Get current access token
    */
   public String getAccessToken() {
     TokenInfo token = currentToken.get();
-    if (token == null || token.isExpired()) {
+    if (token == null || token.isExpired(clock.millis())) {
       throw new AuthenticationException("No valid access token available. Please login first.");
     }
     return token.getAccessToken();
@@ -85,31 +145,113 @@ public class AuthApiClientService {
    */
   public boolean isAuthenticated() {
     TokenInfo token = currentToken.get();
-    return token != null && !token.isExpired();
+    return token != null && !token.isExpired(clock.millis());
   }
 
   /**
    * Logout - clear stored token
    */
   public void logout() {
+    scheduledRenewal.update(Disposables.disposed());
     currentToken.set(null);
   }
 
+  @PreDestroy
+  public void shutdown() {
+    scheduledRenewal.dispose();
+  }
+
   /**
-   * Create WebClient with authentication header
+   * WebClient that adds the current access token to every request.
+   * Built once; the token is resolved per request by {@link BearerTokenFilter}.
    */
   public WebClient createAuthenticatedWebClient() {
-    return webClient.mutate()
-        .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + getAccessToken())
-        .build();
+    return authenticatedWebClient;
+  }
+
+  private Mono<String> renewToken() {
+    TokenInfo token = currentToken.get();
+    if (token != null && token.getRefreshToken() != null) {
+      return requestToken(refreshEndpoint, new RefreshRequest(token.getRefreshToken()))
+          .map(LoginResponse::getAccessToken)
+          .onErrorResume(AuthenticationException.class, error -> {
+            logger.warn("Refresh token rejected, logging in again: {}", error.getMessage());
+            return loginWithConfiguredCredentials();
+          });
+    }
+    return loginWithConfiguredCredentials();
+  }
+
+  private void countRefresh(String outcome) {
+    meterRegistry.counter("auth.token.refresh", "outcome", outcome).increment();
+  }
+
+  private Mono<String> loginWithConfiguredCredentials() {
+    if (username == null || password == null) {
+      return Mono.error(new AuthenticationException("No valid access token available. Please login first."));
+    }
+    return login(username, password);
+  }
+
+  private Mono<LoginResponse> requestToken(String uri, Object body) {
+    return webClient.post()
+            .uri(uri)
+            .bodyValue(body)
+            .retrieve()
+            .onStatus(HttpStatusCode::is4xxClientError, response -> {
+              // ✅ ถูกต้อง - return Mono.error() โดยตรง
+              return response.bodyToMono(String.class)
+                      .map(errorBody -> new AuthenticationException("Authentication failed: " + errorBody))
+                      .cast(Throwable.class) // Cast เป็น Throwable
+                      .flatMap(Mono::error); // แล้วค่อย error
+            })
+            .onStatus(HttpStatusCode::is5xxServerError, response -> {
+              // ✅ ถูกต้อง - return Mono.error() โดยตรง
+              return Mono.error(new ServerException("Server error"));
+            })
+            .bodyToMono(LoginResponse.class)
+            .retryWhen(Retry.backoff(retryProperties.getMaxAttempts(), retryProperties.getDelay())
+                    .jitter(retryProperties.getJitter())
+                    .filter(throwable -> {
+                      return !(throwable instanceof AuthenticationException) &&
+                              !(throwable instanceof WebClientResponseException.Unauthorized);
+                    })
+                    .doBeforeRetry(signal -> meterRegistry.counter("upstream.retries", "operation", "auth").increment()))
+            .doOnSuccess(this::storeToken);
   }
 
   private void storeToken(LoginResponse response) {
+    TokenInfo previous = currentToken.get();
+    // Keep the previous refresh token when the server does not rotate it
+    String refreshToken = response.getRefreshToken() != null || previous == null
+        ? response.getRefreshToken()
+        : previous.getRefreshToken();
     TokenInfo tokenInfo = new TokenInfo(
         response.getAccessToken(),
-        response.getRefreshToken(),
-        LocalDateTime.now().plusSeconds(response.getExpiresIn()));
+        refreshToken,
+        clock.millis() + Duration.ofSeconds(response.getExpiresIn()).toMillis());
     currentToken.set(tokenInfo);
+    scheduleRenewal(tokenInfo);
+  }
+
+  /**
+   * Renew in the background shortly before the token enters its expiry buffer,
+   * so request threads do not have to wait for a refresh.
+   */
+  private void scheduleRenewal(TokenInfo tokenInfo) {
+    if (tokenInfo.getRefreshToken() == null && (username == null || password == null)) {
+      return;
+    }
+    long delayMillis = tokenInfo.getRenewAtMillis() - renewBefore.toMillis() - clock.millis();
+    if (delayMillis <= 0) {
+      return;
+    }
+    Duration delay = Duration.ofMillis(delayMillis);
+    scheduledRenewal.update(Mono.delay(delay)
+        .flatMap(tick -> refreshToken())
+        .subscribe(
+            token -> logger.debug("Access token renewed in background"),
+            error -> logger.warn("Background token renewal failed: {}", error.getMessage())));
   }
 
   // DTOs
@@ -143,6 +285,25 @@ public class AuthApiClientService {
     }
   }
 
+  public static class RefreshRequest {
+    private String refreshToken;
+
+    public RefreshRequest() {
+    }
+
+    public RefreshRequest(String refreshToken) {
+      this.refreshToken = refreshToken;
+    }
+
+    public String getRefreshToken() {
+      return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+      this.refreshToken = refreshToken;
+    }
+  }
+
   public static class LoginResponse {
     private String accessToken;
     private String refreshToken;
@@ -186,16 +347,18 @@ public class AuthApiClientService {
     }
   }
 
-  // Token Info class
+  // Token Info class - immutable snapshot; the expiry check is a single long comparison
   private static class TokenInfo {
+    private static final long EXPIRY_BUFFER_MILLIS = Duration.ofMinutes(5).toMillis();
+
     private final String accessToken;
     private final String refreshToken;
-    private final LocalDateTime expiresAt;
+    private final long renewAtMillis;
 
-    public TokenInfo(String accessToken, String refreshToken, LocalDateTime expiresAt) {
+    public TokenInfo(String accessToken, String refreshToken, long expiresAtMillis) {
       this.accessToken = accessToken;
       this.refreshToken = refreshToken;
-      this.expiresAt = expiresAt;
+      this.renewAtMillis = expiresAtMillis - EXPIRY_BUFFER_MILLIS;
     }
 
     public String getAccessToken() {
@@ -206,8 +369,12 @@ public class AuthApiClientService {
       return refreshToken;
     }
 
-    public boolean isExpired() {
-      return LocalDateTime.now().isAfter(expiresAt.minusMinutes(5)); // 5 minutes buffer
+    public long getRenewAtMillis() {
+      return renewAtMillis;
+    }
+
+    public boolean isExpired(long nowMillis) {
+      return nowMillis > renewAtMillis;
     }
   }
 }
\ No newline at end of file
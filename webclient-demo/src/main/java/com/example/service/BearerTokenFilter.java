@@ -0,0 +1,34 @@
+package com.example.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Adds the current bearer token to each outgoing request.
+ * The token is read when the request is sent, so one filtered {@code WebClient} can be built
+ * once and shared. Requests that already carry an Authorization header are left untouched.
+ */
+public class BearerTokenFilter implements ExchangeFilterFunction {
+
+  private final AuthApiClientService authService;
+
+  public BearerTokenFilter(AuthApiClientService authService) {
+    this.authService = authService;
+  }
+
+  @Override
+  public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+    if (request.headers().containsKey(HttpHeaders.AUTHORIZATION)) {
+      return next.exchange(request);
+    }
+    return authService.getValidAccessToken()
+        .map(token -> ClientRequest.from(request)
+            .headers(headers -> headers.setBearerAuth(token))
+            .build())
+        .flatMap(next::exchange);
+  }
+}
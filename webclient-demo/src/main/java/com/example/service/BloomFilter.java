@@ -0,0 +1,113 @@
+package com.example.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe Bloom filter over strings. {@link #mightContain} never returns false for a value
+ * that was {@link #put}; it returns true for an absent value with roughly the configured
+ * false-positive probability while no more than {@code expectedInsertions} values are stored.
+ * Bit indexes use double hashing (Kirsch-Mitzenmacher) over a 64-bit FNV-1a hash.
+ */
+public final class BloomFilter {
+
+  private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long PRIME = 0x100000001b3L;
+
+  private final AtomicLongArray words;
+  private final long bitSize;
+  private final int hashFunctions;
+  private final LongAdder bitsSet = new LongAdder();
+
+  public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+    if (expectedInsertions <= 0 || falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+      throw new IllegalArgumentException("expectedInsertions must be positive and the probability in (0, 1)");
+    }
+    long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+    int wordCount = Math.toIntExact((bits + 63) / 64);
+    this.words = new AtomicLongArray(wordCount);
+    this.bitSize = wordCount * 64L;
+    this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+  }
+
+  public void put(String value) {
+    long hash1 = hash(value);
+    long hash2 = mix(hash1);
+    long combined = hash1;
+    for (int i = 0; i < hashFunctions; i++) {
+      long index = (combined & Long.MAX_VALUE) % bitSize;
+      setBit(index);
+      combined += hash2;
+    }
+  }
+
+  public boolean mightContain(String value) {
+    long hash1 = hash(value);
+    long hash2 = mix(hash1);
+    long combined = hash1;
+    for (int i = 0; i < hashFunctions; i++) {
+      long index = (combined & Long.MAX_VALUE) % bitSize;
+      if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+        return false;
+      }
+      combined += hash2;
+    }
+    return true;
+  }
+
+  /**
+   * Estimated number of distinct values stored, from the fraction of bits set.
+   */
+  public long approximateElementCount() {
+    double fractionSet = (double) bitsSet.sum() / bitSize;
+    return Math.round(-bitSize / (double) hashFunctions * Math.log1p(-fractionSet));
+  }
+
+  /**
+   * False-positive probability at the current fill level.
+   */
+  public double expectedFalsePositiveProbability() {
+    return Math.pow((double) bitsSet.sum() / bitSize, hashFunctions);
+  }
+
+  public long bitSize() {
+    return bitSize;
+  }
+
+  public int hashFunctions() {
+    return hashFunctions;
+  }
+
+  public long memoryBytes() {
+    return words.length() * 8L;
+  }
+
+  private void setBit(long index) {
+    int word = (int) (index >>> 6);
+    long mask = 1L << index;
+    long current;
+    do {
+      current = words.get(word);
+      if ((current & mask) != 0) {
+        return;
+      }
+    } while (!words.compareAndSet(word, current, current | mask));
+    bitsSet.increment();
+  }
+
+  private static long hash(String value) {
+    long hash = OFFSET_BASIS;
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= PRIME;
+    }
+    return mix(hash);
+  }
+
+  // SplitMix64 finalizer: spreads FNV's weak low bits over the whole word
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,119 @@
+package com.example.service;
+
+import com.example.config.IngestionProperties;
+import com.example.config.PersistenceProperties;
+import com.example.entity.User;
+import com.example.repository.ReactiveUserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Fetch, save and read users without blocking any thread, through R2DBC.
+ * The upstream fetch is shared with {@link UserApiClientService}; only persistence differs.
+ * Fetch-and-save runs through {@link UserSyncCoordinator}, so it never writes the users table
+ * at the same time as a sync, ingest or JPA fetch-and-save on this node.
+ */
+@Service
+@Profile("r2dbc")
+public class ReactiveUserService {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReactiveUserService.class);
+
+  @Autowired
+  private UserApiClientService userApiClientService;
+
+  @Autowired
+  private ReactiveUserRepository reactiveUserRepository;
+
+  @Autowired
+  private TransactionalOperator r2dbcTransactionalOperator;
+
+  @Autowired
+  private IngestionProperties ingestionProperties;
+
+  @Autowired
+  private PersistenceProperties persistenceProperties;
+
+  @Autowired
+  private UserCache userCache;
+
+  @Autowired
+  private UserExistenceFilter existenceFilter;
+
+  @Autowired
+  private UserSyncMetrics syncMetrics;
+
+  @Autowired
+  private UserResponseCache responseCache;
+
+  @Autowired
+  private UserSnapshotStore snapshotStore;
+
+  @Autowired
+  private UserSyncCoordinator syncCoordinator;
+
+  /**
+   * Stream the feed into the database chunk by chunk, each chunk in its own transaction, or
+   * join the R2DBC fetch-and-save that is already running or queued. Emits the total number of
+   * users written; fails with {@link SyncRejectedException} when the sync queue is full.
+   */
+  public Mono<Long> fetchAndSaveUsers() {
+    return syncCoordinator.fetchAndSaveUsersReactively(this::fetchAndSave);
+  }
+
+  private Mono<Long> fetchAndSave() {
+    return userApiClientService.fetchUsers()
+        .buffer(ingestionProperties.getChunkSize())
+        .concatMap(this::saveUsers, 1)
+        .reduce(0L, (total, saved) -> total + saved.size())
+        .doOnNext(total -> logger.info("Saved {} users to database (R2DBC)", total))
+        .flatMap(total -> snapshotStore.refresh().thenReturn(total));
+  }
+
+  public Mono<List<User>> saveUsers(List<User> users) {
+    return Mono.defer(() -> {
+      long start = System.nanoTime();
+      return reactiveUserRepository.upsertAll(users)
+          .as(r2dbcTransactionalOperator::transactional)
+          .map(saved -> {
+            syncMetrics.recordBatchWrite(System.nanoTime() - start, saved);
+            responseCache.invalidate();
+            userCache.refreshAll(users);
+            existenceFilter.addAll(users);
+            return users;
+          });
+    });
+  }
+
+  public Flux<User> getAllUsers() {
+    return reactiveUserRepository.findAll();
+  }
+
+  public Flux<User> getUsersPage(Long afterId, Integer limit) {
+    int pageSize = limit == null ? persistenceProperties.getDefaultPageSize() : limit;
+    pageSize = Math.max(1, Math.min(pageSize, persistenceProperties.getMaxPageSize()));
+    return reactiveUserRepository.findByIdGreaterThanOrderByIdAsc(
+        afterId == null ? Long.MIN_VALUE : afterId, PageRequest.of(0, pageSize));
+  }
+
+  public Mono<User> getUserById(Long id) {
+    User cached = userCache.getIfPresent(id);
+    if (cached != null) {
+      return Mono.just(cached);
+    }
+    return Mono.defer(() -> {
+      long stamp = userCache.writeStamp();
+      return reactiveUserRepository.findById(id)
+          .map(loaded -> userCache.cacheLoaded(loaded, stamp));
+    });
+  }
+}
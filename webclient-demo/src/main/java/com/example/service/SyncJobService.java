@@ -0,0 +1,112 @@
+package com.example.service;
+
+import com.example.config.SyncJobProperties;
+import com.example.dto.SyncJob;
+import com.example.dto.SyncReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs incremental syncs in the background and keeps their status for lookups.
+ * Jobs go through {@link UserSyncCoordinator}, so at most one sync runs per node and
+ * a job may join one already running; the database lock keeps other nodes from
+ * running one at the same time.
+ */
+@Service
+public class SyncJobService {
+
+  private static final Logger logger = LoggerFactory.getLogger(SyncJobService.class);
+
+  @Autowired
+  private SyncJobProperties properties;
+
+  @Autowired
+  private UserSyncCoordinator syncCoordinator;
+
+  private final AtomicReference<SyncJob> runningJob = new AtomicReference<>();
+  private final Map<String, SyncJob> jobs = new LinkedHashMap<>();
+
+  /**
+   * Start a sync and return at once. If this node is already running a job, that job is
+   * returned instead of starting another; if another node holds the lock, or the sync queue
+   * has no room for it, the job is SKIPPED.
+   */
+  public SyncJob submit(SyncJob.Trigger trigger) {
+    SyncJob job = new SyncJob(UUID.randomUUID().toString(), trigger, properties.getNodeId(), Instant.now());
+    if (!runningJob.compareAndSet(null, job)) {
+      SyncJob running = runningJob.get();
+      return running != null ? running : submit(trigger);
+    }
+    remember(job);
+    Duration heldAtLeastFor = trigger == SyncJob.Trigger.SCHEDULED ? properties.getLockAtLeastFor() : Duration.ZERO;
+
+    SyncRun<SyncReport> run;
+    try {
+      run = syncCoordinator.submitIncrementalSync(heldAtLeastFor);
+    } catch (SyncRejectedException e) {
+      job.finish(SyncJob.Status.SKIPPED, e.getMessage());
+      runningJob.compareAndSet(job, null);
+      logger.info("Sync job {} finished: {}", job.getId(), job);
+      return job;
+    }
+
+    run.progress().subscribe(job::progress);
+    run.result()
+        .doOnNext(report -> {
+          job.progress(report);
+          job.finish(SyncJob.Status.SUCCEEDED, null);
+        })
+        .switchIfEmpty(Mono.fromRunnable(() -> job.finish(SyncJob.Status.SKIPPED, "Sync lock is held by another node")))
+        .doOnError(error -> job.finish(SyncJob.Status.FAILED, error.getMessage()))
+        .doFinally(signal -> {
+          runningJob.compareAndSet(job, null);
+          logger.info("Sync job {} finished: {}", job.getId(), job);
+        })
+        .subscribe(null, error -> logger.error("Sync job {} failed: ", job.getId(), error));
+    return job;
+  }
+
+  public Optional<SyncJob> getJob(String id) {
+    synchronized (jobs) {
+      return Optional.ofNullable(jobs.get(id));
+    }
+  }
+
+  /**
+   * Most recent jobs first.
+   */
+  public List<SyncJob> getRecentJobs() {
+    synchronized (jobs) {
+      List<SyncJob> recent = new ArrayList<>(jobs.values());
+      Collections.reverse(recent);
+      return recent;
+    }
+  }
+
+  private void remember(SyncJob job) {
+    synchronized (jobs) {
+      jobs.put(job.getId(), job);
+      Iterator<SyncJob> oldest = jobs.values().iterator();
+      while (jobs.size() > properties.getRetainedJobs() && oldest.hasNext()) {
+        if (oldest.next().isFinished()) {
+          oldest.remove();
+        }
+      }
+    }
+  }
+}
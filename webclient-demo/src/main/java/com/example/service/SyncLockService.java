@@ -0,0 +1,56 @@
+package com.example.service;
+
+import com.example.entity.SyncLock;
+import com.example.repository.SyncLockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Lease-based lock on the application database, shared by all replicas. Leases run on the
+ * database clock.
+ * Blocking: call it from the blocking I/O scheduler.
+ */
+@Service
+public class SyncLockService {
+
+  @Autowired
+  private SyncLockRepository syncLockRepository;
+
+  /**
+   * Take the lock for {@code lease} if it is free or its previous lease has run out.
+   */
+  public boolean tryAcquire(String name, String owner, Duration lease) {
+    if (!syncLockRepository.existsById(name)) {
+      try {
+        syncLockRepository.saveAndFlush(new SyncLock(name, Instant.EPOCH));
+      } catch (DataIntegrityViolationException e) {
+        // Another node created the row first, which is just as good
+      }
+    }
+    return syncLockRepository.tryAcquire(name, owner, micros(lease)) == 1;
+  }
+
+  /**
+   * Extend the lock held by {@code owner} to {@code lease} from now. False if its lease had
+   * already run out, in which case another node may have taken the lock.
+   */
+  public boolean renew(String name, String owner, Duration lease) {
+    return syncLockRepository.renew(name, owner, micros(lease)) == 1;
+  }
+
+  /**
+   * Give the lock up, keeping it until {@code heldAtLeastFor} after it was taken if that is
+   * still in the future.
+   */
+  public void release(String name, String owner, Duration heldAtLeastFor) {
+    syncLockRepository.release(name, owner, micros(heldAtLeastFor));
+  }
+
+  private static long micros(Duration duration) {
+    return duration.toNanos() / 1_000;
+  }
+}
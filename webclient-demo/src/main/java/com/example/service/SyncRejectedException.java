@@ -0,0 +1,10 @@
+package com.example.service;
+
+/**
+ * A sync could not be started or queued because the sync queue is full.
+ */
+public class SyncRejectedException extends RuntimeException {
+  public SyncRejectedException(String message) {
+    super(message);
+  }
+}
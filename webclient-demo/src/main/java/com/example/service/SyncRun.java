@@ -0,0 +1,120 @@
+package com.example.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * One sync scheduled by {@link UserSyncCoordinator}, shared by every caller that asked for it
+ * while it was queued or running. Its result and progress can be subscribed to at any time;
+ * late subscribers get the latest progress and the result once it is known.
+ */
+public final class SyncRun<T> {
+
+  public enum Status {
+    QUEUED, RUNNING, SUCCEEDED, FAILED
+  }
+
+  private final String id = UUID.randomUUID().toString();
+  private final UserSyncCoordinator.Operation operation;
+  private final Instant submittedAt = Instant.now();
+  private final Function<Consumer<T>, Mono<T>> task;
+  private final AtomicInteger callers = new AtomicInteger(1);
+  private final Sinks.One<T> result = Sinks.one();
+  private final Sinks.Many<T> progress = Sinks.many().replay().latest();
+  private volatile Status status = Status.QUEUED;
+  private volatile Instant startedAt;
+
+  SyncRun(UserSyncCoordinator.Operation operation, Function<Consumer<T>, Mono<T>> task) {
+    this.operation = operation;
+    this.task = task;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public UserSyncCoordinator.Operation getOperation() {
+    return operation;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public Instant getSubmittedAt() {
+    return submittedAt;
+  }
+
+  public Instant getStartedAt() {
+    return startedAt;
+  }
+
+  /**
+   * Number of requests this run is serving.
+   */
+  public int getCallers() {
+    return callers.get();
+  }
+
+  /**
+   * The outcome: the task's value, empty if it produced none, or its error.
+   */
+  public Mono<T> result() {
+    return result.asMono();
+  }
+
+  /**
+   * Progress reported by the task, such as a sync's running counts or an ingest's chunks,
+   * completing when the run ends however it ends; the outcome is in {@link #result()}.
+   * Operations that report no progress, like fetch-and-save, only complete.
+   */
+  public Flux<T> progress() {
+    return progress.asFlux();
+  }
+
+  void join() {
+    callers.incrementAndGet();
+  }
+
+  Mono<T> start() {
+    startedAt = Instant.now();
+    status = Status.RUNNING;
+    return Mono.defer(() -> task.apply(progress::tryEmitNext));
+  }
+
+  /**
+   * Publish the outcome; {@code value} is null when the task completed empty.
+   */
+  void complete(T value) {
+    status = Status.SUCCEEDED;
+    progress.tryEmitComplete();
+    if (value == null) {
+      result.tryEmitEmpty();
+    } else {
+      result.tryEmitValue(value);
+    }
+  }
+
+  void fail(Throwable error) {
+    status = Status.FAILED;
+    progress.tryEmitComplete();
+    result.tryEmitError(error);
+  }
+
+  @Override
+  public String toString() {
+    return "SyncRun{" +
+        "id='" + id + '\'' +
+        ", operation=" + operation +
+        ", status=" + status +
+        ", callers=" + callers +
+        '}';
+  }
+}
@@ -1,21 +1,42 @@
 package com.example.service;
 
+import com.example.config.BatchLookupProperties;
+import com.example.config.HttpCacheProperties;
+import com.example.config.IngestionProperties;
+import com.example.config.PersistenceProperties;
+import com.example.config.UpstreamPagingProperties;
+import com.example.dto.IngestionProgress;
+import com.example.dto.SyncReport;
 import com.example.entity.User;
+import com.example.repository.UserJdbcRepository;
 import com.example.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.retry.RetryBackoffSpec;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 @Service
 public class UserApiClientService {
 
   private static final Logger logger = LoggerFactory.getLogger(UserApiClientService.class);
+  private static final long LOG_SAMPLE_INTERVAL = 1000;
 
   @Autowired
   private WebClient webClient;
@@ -24,42 +45,375 @@ public class UserApiClientService {
   private UserRepository userRepository;
 
   @Autowired
-  private AuthApiClientService authService;
+  private UserJdbcRepository userJdbcRepository;
+
+  @Autowired
+  private IngestionProperties ingestionProperties;
+
+  @Autowired
+  private Scheduler blockingIoScheduler;
+
+  @Autowired
+  private UserCache userCache;
+
+  @Autowired
+  private PersistenceProperties persistenceProperties;
+
+  @Autowired
+  private UserFingerprintIndex fingerprintIndex;
+
+  @Autowired
+  private UpstreamPagingProperties pagingProperties;
+
+  @Autowired
+  private RetryBackoffSpec retryConfig;
+
+  @Autowired
+  private UserSyncMetrics syncMetrics;
+
+  @Autowired
+  private UserExistenceFilter existenceFilter;
+
+  @Autowired
+  private UserBatchLoader batchLoader;
+
+  @Autowired
+  private BatchLookupProperties batchLookupProperties;
+
+  @Autowired
+  private UserResponseCache responseCache;
+
+  @Autowired
+  private HttpCacheProperties httpCacheProperties;
+
+  @Autowired
+  private UserSnapshotStore snapshotStore;
 
   public Mono<List<User>> fetchAndSaveUsers() {
-    return fetchUsersFromApi(authService.getAccessToken())
+    return fetchUsers()
         .collectList()
-        .flatMap(this::saveUsers);
+        .flatMap(this::saveUsers)
+        .flatMap(saved -> snapshotStore.refresh().thenReturn(saved));
+  }
+
+  /**
+   * Stream the upstream feed into the database in fixed-size chunks.
+   * At most one chunk is being written while the next one is buffered, so memory
+   * stays flat regardless of the feed size. Emits one progress item per chunk.
+   */
+  public Flux<IngestionProgress> ingestUsers() {
+    int chunkSize = ingestionProperties.getChunkSize();
+    return Flux.defer(() -> {
+      AtomicLong ingested = new AtomicLong();
+      return fetchUsers()
+          .buffer(chunkSize)
+          .concatMap(this::saveUsers, 1)
+          .index()
+          .map(chunk -> new IngestionProgress(
+              chunk.getT1() + 1,
+              chunk.getT2().size(),
+              ingested.addAndGet(chunk.getT2().size())))
+          .doOnNext(progress -> logger.info("Ingested chunk {} ({} users, {} total)",
+              progress.getChunk(), progress.getChunkSize(), progress.getTotalIngested()))
+          .doOnComplete(() -> logger.info("Ingestion completed: {} users", ingested.get()))
+          .concatWith(snapshotStore.refresh().then(Mono.<IngestionProgress>empty()));
+    });
+  }
+
+  /**
+   * Fetch the upstream feed and write only users that are new or whose fingerprint changed.
+   * Users missing from the feed are counted as deleted upstream but kept in the database.
+   */
+  public Mono<SyncReport> syncUsersIncrementally() {
+    return syncUsersIncrementally(report -> { });
+  }
+
+  /**
+   * Same as {@link #syncUsersIncrementally()}, passing the running totals to {@code progress}
+   * after every chunk has been written.
+   */
+  public Mono<SyncReport> syncUsersIncrementally(Consumer<SyncReport> progress) {
+    int chunkSize = ingestionProperties.getChunkSize();
+    return Mono.defer(() -> {
+      SyncReport report = new SyncReport();
+      UserFingerprintIndex.SeenIds seenIds = new UserFingerprintIndex.SeenIds();
+      return fetchUsers()
+          .buffer(chunkSize)
+          .concatMap(chunk -> Mono.fromCallable(() -> fingerprintIndex.classify(requireIds(chunk)))
+              .subscribeOn(blockingIoScheduler)
+              .flatMap(changes -> {
+                List<User> changed = new ArrayList<>();
+                for (int i = 0; i < chunk.size(); i++) {
+                  User user = chunk.get(i);
+                  seenIds.add(user.getId());
+                  switch (changes.get(i)) {
+                    case INSERTED -> {
+                      report.setInserted(report.getInserted() + 1);
+                      changed.add(user);
+                    }
+                    case UPDATED -> {
+                      report.setUpdated(report.getUpdated() + 1);
+                      changed.add(user);
+                    }
+                    case UNCHANGED -> report.setUnchanged(report.getUnchanged() + 1);
+                  }
+                }
+                return changed.isEmpty() ? Mono.just(changed) : saveUsers(changed);
+              }), 1)
+          .doOnNext(saved -> progress.accept(report))
+          .then(Mono.fromCallable(() -> {
+            report.setDeletedUpstream(fingerprintIndex.countMissing(seenIds));
+            logger.info("Incremental sync completed: {}", report);
+            return report;
+          }).subscribeOn(blockingIoScheduler))
+          .flatMap(completed -> snapshotStore.refresh().thenReturn(completed));
+    });
+  }
+
+  /**
+   * Fails on a user without an id, as the upsert would, before the chunk is looked up or any
+   * of its ids is counted as seen.
+   */
+  private static List<User> requireIds(List<User> chunk) {
+    for (User user : chunk) {
+      if (user.getId() == null) {
+        throw new IllegalArgumentException("Cannot sync a user without an id: " + user);
+      }
+    }
+    return chunk;
   }
 
   public Flux<User> fetchUsersFromApi(String accessToken) {
-    return webClient.get()
+    return instrumentFetch(webClient.get()
         .uri("/users")
         .headers(headers -> headers.setBearerAuth(accessToken))
         .retrieve()
-        .bodyToFlux(User.class)
-        .doOnNext(user -> logger.info("Fetched user: {}", user))
-        .doOnError(error -> logger.error("Error fetching users: ", error));
+        .bodyToFlux(User.class));
   }
 
-  // Keep the old method for backward compatibility (mainly for tests)
+  /**
+   * Fetch users with the token supplied by the WebClient's {@code BearerTokenFilter}.
+   */
   public Flux<User> fetchUsersFromApi() {
-    return fetchUsersFromApi(authService.getAccessToken());
+    return instrumentFetch(webClient.get()
+        .uri("/users")
+        .retrieve()
+        .bodyToFlux(User.class));
+  }
+
+  /**
+   * Fetch the feed page by page with up to {@code external.api.paging.concurrency} requests in flight.
+   * Pages are emitted in page order; the first short page ends the feed. Each page is retried on its own.
+   * Fails if page {@code max-pages} is still full: the feed was truncated, and a caller that
+   * treated it as complete would count every user after it as deleted upstream.
+   */
+  public Flux<User> fetchUsersPaged() {
+    int pageSize = pagingProperties.getPageSize();
+    int maxPages = pagingProperties.getMaxPages();
+    return instrumentFetch(Flux.range(1, maxPages)
+        .flatMapSequential(this::fetchUsersPage, pagingProperties.getConcurrency(), 1)
+        .takeUntil(page -> page.size() < pageSize)
+        .index()
+        .<List<User>>handle((page, sink) -> {
+          if (page.getT1() == maxPages - 1 && page.getT2().size() >= pageSize) {
+            sink.error(new IllegalStateException("Upstream feed has more than " + maxPages
+                + " pages of " + pageSize + " users; raise external.api.paging.max-pages"));
+          } else {
+            sink.next(page.getT2());
+          }
+        })
+        .flatMapIterable(page -> page));
+  }
+
+  private Mono<List<User>> fetchUsersPage(int page) {
+    return webClient.get()
+        .uri(uriBuilder -> uriBuilder.path("/users")
+            .queryParam(pagingProperties.getPageParam(), page)
+            .queryParam(pagingProperties.getSizeParam(), pagingProperties.getPageSize())
+            .build())
+        .retrieve()
+        .bodyToFlux(User.class)
+        .collectList()
+        .retryWhen(retryConfig
+            .modifyErrorFilter(baseFilter -> ((Predicate<Throwable>) UserApiClientService::isRetryable).and(baseFilter))
+            // After the budget has allowed the retry, so refused retries are not counted
+            .doAfterRetry(signal -> syncMetrics.retry("users.page")))
+        .doOnError(error -> logger.error("Error fetching users page {}: ", page, error));
+  }
+
+  /**
+   * Times the whole fetch and counts users. Individual records are only logged at DEBUG,
+   * one in {@value #LOG_SAMPLE_INTERVAL}; the total is logged once at the end.
+   */
+  private Flux<User> instrumentFetch(Flux<User> users) {
+    return Flux.defer(() -> {
+      long start = System.nanoTime();
+      AtomicLong fetched = new AtomicLong();
+      return users
+          .doOnNext(user -> {
+            syncMetrics.userFetched();
+            long count = fetched.incrementAndGet();
+            if (count % LOG_SAMPLE_INTERVAL == 0 && logger.isDebugEnabled()) {
+              logger.debug("Fetched {} users so far, latest: {}", count, user);
+            }
+          })
+          .doOnComplete(() -> {
+            syncMetrics.recordFetch(System.nanoTime() - start, true);
+            logger.info("Fetched {} users", fetched.get());
+          })
+          .doOnError(error -> {
+            syncMetrics.recordFetch(System.nanoTime() - start, false);
+            logger.error("Error fetching users after {} records: ", fetched.get(), error);
+          });
+    });
+  }
+
+  /**
+   * The upstream feed, paged when {@code external.api.paging.enabled} is set.
+   */
+  public Flux<User> fetchUsers() {
+    return pagingProperties.isEnabled() ? fetchUsersPaged() : fetchUsersFromApi();
+  }
+
+  private static boolean isRetryable(Throwable throwable) {
+    return !(throwable instanceof WebClientResponseException responseException)
+        || responseException.getStatusCode().is5xxServerError();
   }
 
   public Mono<List<User>> saveUsers(List<User> users) {
     return Mono.fromCallable(() -> {
-      List<User> savedUsers = userRepository.saveAll(users);
-      logger.info("Saved {} users to database", savedUsers.size());
-      return savedUsers;
-    });
+      long start = System.nanoTime();
+      int saved = userJdbcRepository.upsertAll(users);
+      syncMetrics.recordBatchWrite(System.nanoTime() - start, saved);
+      responseCache.invalidate();
+      userCache.refreshAll(users);
+      existenceFilter.addAll(users);
+      logger.info("Saved {} users to database", saved);
+      return users;
+    }).subscribeOn(blockingIoScheduler);
   }
 
   public List<User> getAllUsers() {
-    return userRepository.findAll();
+    UserSnapshot snapshot = snapshotStore.current();
+    return snapshot != null ? snapshot.getAll() : userRepository.findAll();
+  }
+
+  /**
+   * ETag of the users collection; changes with every {@link #saveUsers} on any node. Blocking.
+   */
+  public String getUsersETag() {
+    return UserResponseCache.collectionETag(usersVersion());
+  }
+
+  /**
+   * All users as JSON and gzip bytes, reused until the next save; null unless
+   * {@code http-cache.precompressed} is set. Blocking.
+   */
+  public UserResponseCache.SerializedUsers getAllUsersSerialized() {
+    if (!isPrecompressed()) {
+      return null;
+    }
+    return responseCache.serializedUsers(usersVersion(), this::getAllUsers);
+  }
+
+  public boolean isPrecompressed() {
+    return httpCacheProperties.isPrecompressed();
+  }
+
+  /**
+   * Version of the data reads are served from: the snapshot's when one is served, else the
+   * table's, read before the query.
+   */
+  private long usersVersion() {
+    UserSnapshot snapshot = snapshotStore.current();
+    return snapshot != null ? snapshot.version() : userJdbcRepository.currentVersion();
+  }
+
+  /**
+   * One keyset page of users with ids greater than {@code afterId}, in id order.
+   */
+  public List<User> getUsersPage(Long afterId, Integer limit) {
+    int pageSize = limit == null ? persistenceProperties.getDefaultPageSize() : limit;
+    pageSize = Math.max(1, Math.min(pageSize, persistenceProperties.getMaxPageSize()));
+    long after = afterId == null ? Long.MIN_VALUE : afterId;
+    UserSnapshot snapshot = snapshotStore.current();
+    if (snapshot != null) {
+      return snapshot.getPage(after, pageSize);
+    }
+    return userRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, pageSize));
+  }
+
+  /**
+   * Stream all users from a JDBC cursor; rows are emitted as they are read.
+   */
+  public Flux<User> streamAllUsers() {
+    return Flux.using(userJdbcRepository::streamAll, Flux::fromStream, Stream::close)
+        .subscribeOn(blockingIoScheduler);
   }
 
   public User getUserById(Long id) {
-    return userRepository.findById(id).orElse(null);
+    UserSnapshot snapshot = snapshotStore.current();
+    if (snapshot != null) {
+      return snapshot.get(id);
+    }
+    return userCache.get(id, key -> userRepository.findById(key).orElse(null));
+  }
+
+  /**
+   * The user from the snapshot when one is being served, else the cached user or a read
+   * coalesced with concurrent lookups by {@link UserBatchLoader}, which caches what it reads.
+   * Empty if there is no user with that id.
+   */
+  public Mono<User> loadUserById(Long id) {
+    UserSnapshot snapshot = snapshotStore.current();
+    if (snapshot != null) {
+      return Mono.justOrEmpty(snapshot.get(id));
+    }
+    User cached = userCache.getIfPresent(id);
+    if (cached != null) {
+      return Mono.just(cached);
+    }
+    return batchLoader.load(id);
+  }
+
+  /**
+   * The users with the given ids in request order, skipping duplicates and unknown ids.
+   * Cache misses are read in as few {@code findAllById} queries as the batch size allows.
+   */
+  public Mono<List<User>> getUsersByIds(Collection<Long> ids) {
+    Set<Long> distinctIds = new LinkedHashSet<>(ids);
+    if (distinctIds.size() > batchLookupProperties.getMaxIds()) {
+      return Mono.error(new IllegalArgumentException(
+          "At most " + batchLookupProperties.getMaxIds() + " ids per request, got " + distinctIds.size()));
+    }
+    return Flux.fromIterable(distinctIds)
+        .flatMap(this::loadUserById, Math.max(1, distinctIds.size()))
+        .collectMap(User::getId)
+        .map(found -> {
+          List<User> users = new ArrayList<>(found.size());
+          for (Long id : distinctIds) {
+            User user = found.get(id);
+            if (user != null) {
+              users.add(user);
+            }
+          }
+          return users;
+        });
+  }
+
+  public User getUserByUsername(String username) {
+    return userCache.getByUsername(username, () -> userRepository.findByNaturalUsername(username).orElse(null));
+  }
+
+  public User getUserByEmail(String email) {
+    return userCache.getByEmail(email, () -> userRepository.findByEmail(email).orElse(null));
+  }
+
+  public boolean usernameExists(String username) {
+    return existenceFilter.existsByUsername(username);
+  }
+
+  public boolean emailExists(String email) {
+    return existenceFilter.existsByEmail(email);
   }
 }
\ No newline at end of file
@@ -0,0 +1,164 @@
+package com.example.service;
+
+import com.example.config.BatchLookupProperties;
+import com.example.entity.User;
+import com.example.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataLoader-style coalescing of id lookups. Ids requested within
+ * {@code batch-lookup.window} of each other are read with one {@code findAllById}, and
+ * concurrent requests for an id that is already queued or being read share that read.
+ * Users read are cached in {@link UserCache} unless they were written while the batch was
+ * reading, and every caller of an id gets the same user back.
+ * <p>
+ * Callers add ids to a lock-free queue; whichever caller finds no drain in progress moves
+ * them into the batching sink, so the sink sees one producer at a time and nobody waits for
+ * another caller's emission.
+ */
+@Component
+public class UserBatchLoader {
+
+  private static final Logger logger = LoggerFactory.getLogger(UserBatchLoader.class);
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private UserCache userCache;
+
+  @Autowired
+  private BatchLookupProperties properties;
+
+  @Autowired
+  private Scheduler blockingIoScheduler;
+
+  private final ConcurrentMap<Long, Sinks.One<User>> inFlight = new ConcurrentHashMap<>();
+  private final Queue<Long> pending = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger drainers = new AtomicInteger();
+  // Only ever emitted to by the one thread draining pending
+  private final Sinks.Many<Long> queue = Sinks.unsafe().many().unicast().onBackpressureBuffer();
+  private Disposable batches;
+
+  @PostConstruct
+  public void start() {
+    batches = queue.asFlux()
+        .bufferTimeout(properties.getMaxBatchSize(), properties.getWindow())
+        // The window timer emits regardless of demand; queue batches rather than overflow
+        .onBackpressureBuffer()
+        .flatMap(this::loadBatch, properties.getConcurrency())
+        .subscribe();
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (batches != null) {
+      batches.dispose();
+    }
+  }
+
+  /**
+   * The user with the given id, or empty if there is none. The id is queued on subscription.
+   */
+  public Mono<User> load(Long id) {
+    return Mono.defer(() -> {
+      Sinks.One<User> created = Sinks.one();
+      Sinks.One<User> joined = inFlight.putIfAbsent(id, created);
+      if (joined != null) {
+        return joined.asMono();
+      }
+      pending.offer(id);
+      drain();
+      return created.asMono();
+    });
+  }
+
+  /**
+   * Ids currently queued or being read.
+   */
+  public int inFlightCount() {
+    return inFlight.size();
+  }
+
+  /**
+   * Move pending ids into the sink. Only the caller that raises {@code drainers} from zero
+   * drains; the others leave their ids to it, and it loops until it has seen every increment.
+   */
+  private void drain() {
+    if (drainers.getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    do {
+      Long id;
+      while ((id = pending.poll()) != null) {
+        Sinks.EmitResult result = queue.tryEmitNext(id);
+        if (result.isFailure()) {
+          // Never queued, so no batch will complete it: fail it for the callers that joined it
+          Sinks.One<User> sink = inFlight.remove(id);
+          if (sink != null) {
+            sink.tryEmitError(new IllegalStateException("Could not queue user " + id + " for loading: " + result));
+          }
+        }
+      }
+      missed = drainers.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private Mono<Void> loadBatch(List<Long> ids) {
+    return Mono.fromCallable(() -> {
+          // Taken before the query, so any write the query may have missed is stamped after it
+          long stamp = userCache.writeStamp();
+          Map<Long, User> found = new HashMap<>();
+          for (User user : userRepository.findAllById(ids)) {
+            found.put(user.getId(), userCache.cacheLoaded(user, stamp));
+          }
+          return found;
+        })
+        .subscribeOn(blockingIoScheduler)
+        .doOnNext(found -> {
+          for (Long id : ids) {
+            // Removed before completing, so a caller arriving now queues a fresh read
+            Sinks.One<User> sink = inFlight.remove(id);
+            if (sink == null) {
+              continue;
+            }
+            User user = found.get(id);
+            if (user != null) {
+              sink.tryEmitValue(user);
+            } else {
+              sink.tryEmitEmpty();
+            }
+          }
+        })
+        .onErrorResume(error -> {
+          logger.error("Error loading batch of {} users: ", ids.size(), error);
+          for (Long id : ids) {
+            Sinks.One<User> sink = inFlight.remove(id);
+            if (sink != null) {
+              sink.tryEmitError(error);
+            }
+          }
+          return Mono.empty();
+        })
+        .then();
+  }
+}
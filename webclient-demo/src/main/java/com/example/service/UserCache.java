@@ -0,0 +1,230 @@
+package com.example.service;
+
+import com.example.config.UserCacheProperties;
+import com.example.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Size- and TTL-bounded cache of users keyed by id (Caffeine, W-TinyLFU eviction).
+ * Username and email lookups go through secondary indexes that point at the id entry,
+ * so each user is cached once whichever key it was loaded by. The indexes are bounded caches
+ * themselves, so a mapping that outlives its entry is eventually dropped; until then a lookup
+ * through it just misses, since the entry's key is checked.
+ * <p>
+ * Every write stamps the ids it touches, cached or not, so a read that began before the write
+ * can tell that what it read may be stale and leave it uncached; see {@link #cacheLoaded}.
+ */
+@Component
+public class UserCache implements MeterBinder {
+
+  private final Cache<Long, User> usersById;
+  private final Cache<String, Long> idsByUsername;
+  private final Cache<String, Long> idsByEmail;
+  private final AtomicLong writeClock = new AtomicLong();
+  // Latest write stamp per recently written id. Bounded: an evicted stamp is folded into
+  // evictedWritesUpTo, which then stands in for the stamp of every id without one
+  private final Cache<Long, Long> writesById;
+  private final AtomicLong evictedWritesUpTo = new AtomicLong();
+
+  public UserCache(UserCacheProperties properties) {
+    this.usersById = Caffeine.newBuilder()
+        .maximumSize(properties.getMaximumSize())
+        .expireAfterWrite(properties.getExpireAfterWrite())
+        .recordStats()
+        // Run on the evicting thread, not the common pool, so an eviction's unindex cannot
+        // land after a later put() has indexed the same keys
+        .executor(Runnable::run)
+        .removalListener((Long id, User user, RemovalCause cause) -> {
+          // Replacements are unindexed in put(), where the old and new values are both known
+          if (cause != RemovalCause.REPLACED && user != null) {
+            unindex(id, user);
+          }
+        })
+        .build();
+    this.idsByUsername = newIndex(properties);
+    this.idsByEmail = newIndex(properties);
+    this.writesById = Caffeine.newBuilder()
+        .maximumSize(properties.getMaximumSize())
+        .executor(Runnable::run)
+        // Called while the entry is being removed, so no reader sees it gone before this ran
+        .evictionListener((Long id, Long stamp, RemovalCause cause) -> {
+          if (stamp != null) {
+            evictedWritesUpTo.accumulateAndGet(stamp, Math::max);
+          }
+        })
+        .build();
+  }
+
+  public User get(Long id, Function<Long, User> loader) {
+    // Index only what the loader adds: hits are already indexed, and re-indexing a value read
+    // before a concurrent put() would restore the mappings that put() just removed
+    return usersById.get(id, key -> {
+      User loaded = loader.apply(key);
+      if (loaded != null) {
+        index(loaded);
+      }
+      return loaded;
+    });
+  }
+
+  /**
+   * Cached user or null, without loading; for callers that load asynchronously.
+   */
+  public User getIfPresent(Long id) {
+    return usersById.getIfPresent(id);
+  }
+
+  /**
+   * Stamp to take before reading users from the database, for {@link #cacheLoaded}.
+   */
+  public long writeStamp() {
+    return writeClock.get();
+  }
+
+  /**
+   * Cache {@code loaded}, read after {@code stamp} was taken, unless the user has been written
+   * since: the read may have missed that write, so the value is handed back uncached instead of
+   * being served for the whole TTL. Returns the cached user instead if there already is one.
+   */
+  public User cacheLoaded(User loaded, long stamp) {
+    User cached = usersById.get(loaded.getId(), id -> {
+      if (writtenSince(id, stamp)) {
+        return null;
+      }
+      index(loaded);
+      return loaded;
+    });
+    return cached != null ? cached : loaded;
+  }
+
+  public User getByUsername(String username, Supplier<User> loader) {
+    return getBySecondaryKey(idsByUsername.getIfPresent(username), username, User::getUsername, loader);
+  }
+
+  public User getByEmail(String email, Supplier<User> loader) {
+    return getBySecondaryKey(idsByEmail.getIfPresent(email), email, User::getEmail, loader);
+  }
+
+  public void put(User user) {
+    recordWrite(user.getId());
+    User previous = usersById.asMap().put(user.getId(), user);
+    if (previous != null) {
+      unindex(previous.getId(), previous);
+    }
+    index(user);
+  }
+
+  /**
+   * Replace the users that are already cached and skip the rest, so writing a whole sync does
+   * not evict the users that are actually being read. The skipped ids are still stamped as
+   * written, so a read of one that is in flight does not cache the row it read before.
+   */
+  public void refreshAll(List<User> users) {
+    users.forEach(user -> recordWrite(user.getId()));
+    users.forEach(user -> usersById.asMap().computeIfPresent(user.getId(), (id, previous) -> {
+      unindex(id, previous);
+      index(user);
+      return user;
+    }));
+  }
+
+  public void invalidate(Long id) {
+    recordWrite(id);
+    usersById.invalidate(id);
+  }
+
+  public void invalidateAll() {
+    evictedWritesUpTo.accumulateAndGet(writeClock.incrementAndGet(), Math::max);
+    usersById.invalidateAll();
+    idsByUsername.invalidateAll();
+    idsByEmail.invalidateAll();
+  }
+
+  public CacheStats stats() {
+    return usersById.stats();
+  }
+
+  public long size() {
+    return usersById.estimatedSize();
+  }
+
+  /**
+   * Publishes hit/miss/eviction meters as {@code cache.*{cache="users"}} plus the index sizes.
+   */
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, usersById, "users");
+    Gauge.builder("cache.users.index.size", idsByUsername, Cache::estimatedSize)
+        .tag("index", "username")
+        .register(registry);
+    Gauge.builder("cache.users.index.size", idsByEmail, Cache::estimatedSize)
+        .tag("index", "email")
+        .register(registry);
+  }
+
+  private User getBySecondaryKey(Long id, String key, Function<User, String> keyOf, Supplier<User> loader) {
+    if (id != null) {
+      User cached = usersById.getIfPresent(id);
+      // The index may lag behind the entry, so only trust it when the key still matches
+      if (cached != null && key.equals(keyOf.apply(cached))) {
+        return cached;
+      }
+    }
+    User loaded = loader.get();
+    if (loaded != null) {
+      put(loaded);
+    }
+    return loaded;
+  }
+
+  private static Cache<String, Long> newIndex(UserCacheProperties properties) {
+    return Caffeine.newBuilder()
+        .maximumSize(properties.getMaximumSize())
+        .expireAfterWrite(properties.getExpireAfterWrite())
+        .executor(Runnable::run)
+        .build();
+  }
+
+  // Stamp before touching the entry, so a concurrent cacheLoaded() either sees the stamp or
+  // inserts an entry this write then replaces
+  private void recordWrite(Long id) {
+    writesById.asMap().merge(id, writeClock.incrementAndGet(), Math::max);
+  }
+
+  private boolean writtenSince(Long id, long stamp) {
+    Long written = writesById.getIfPresent(id);
+    return (written != null ? written : evictedWritesUpTo.get()) > stamp;
+  }
+
+  private void index(User user) {
+    if (user.getUsername() != null) {
+      idsByUsername.put(user.getUsername(), user.getId());
+    }
+    if (user.getEmail() != null) {
+      idsByEmail.put(user.getEmail(), user.getId());
+    }
+  }
+
+  private void unindex(Long id, User user) {
+    // Only drop mappings that still point at this id; another user may have taken the key since
+    if (user.getUsername() != null) {
+      idsByUsername.asMap().remove(user.getUsername(), id);
+    }
+    if (user.getEmail() != null) {
+      idsByEmail.asMap().remove(user.getEmail(), id);
+    }
+  }
+}
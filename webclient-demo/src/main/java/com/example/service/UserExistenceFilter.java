@@ -0,0 +1,234 @@
+package com.example.service;
+
+import com.example.config.ExistenceFilterProperties;
+import com.example.entity.User;
+import com.example.repository.UserJdbcRepository;
+import com.example.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Collator;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters over usernames and emails in front of {@code existsByUsername} and
+ * {@code existsByEmail}. A miss answers "absent" without a query; a hit falls back to the
+ * repository. Until the first build completes every check goes to the repository.
+ *
+ * <p>Values written through {@link #addAll} show up at once. Rows written by other nodes,
+ * and deletions or renames, are picked up by the periodic rebuild. An "absent" answer can
+ * therefore be stale by up to {@code existence-filter.rebuild-interval}, and the unique
+ * constraints on the table remain the final word on uniqueness.
+ */
+@Component
+public class UserExistenceFilter implements MeterBinder {
+
+  private static final Logger logger = LoggerFactory.getLogger(UserExistenceFilter.class);
+  private static final Pattern ASCII = Pattern.compile("\\p{ASCII}*");
+  // A Collator synchronizes every call internally, so each thread builds keys with its own copy
+  private static final Collator TEMPLATE = primaryCollator();
+  private static final ThreadLocal<Collator> PRIMARY = ThreadLocal.withInitial(() -> (Collator) TEMPLATE.clone());
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private UserJdbcRepository userJdbcRepository;
+
+  @Autowired
+  private ExistenceFilterProperties properties;
+
+  @Autowired
+  private Scheduler blockingIoScheduler;
+
+  private final Object writeLock = new Object();
+  private final Disposable.Swap rebuilds = Disposables.swap();
+  private volatile Filters filters;
+  // Values added while a rebuild is scanning the table; replayed into the new filters
+  private List<User> addedDuringRebuild;
+
+  // Bound by bindTo(); checks made before that are simply not counted
+  private volatile Counter definitelyAbsent;
+  private volatile Counter possiblyPresent;
+  private volatile Counter falsePositives;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    rebuilds.update(Flux.interval(Duration.ZERO, properties.getRebuildInterval())
+        .onBackpressureDrop()
+        .concatMap(tick -> Mono.fromRunnable(this::rebuild)
+            .subscribeOn(blockingIoScheduler)
+            .onErrorResume(error -> {
+              logger.warn("Rebuilding the user existence filter failed: {}", error.getMessage());
+              return Mono.empty();
+            }), 1)
+        .subscribe());
+  }
+
+  @PreDestroy
+  public void stop() {
+    rebuilds.dispose();
+  }
+
+  public boolean existsByUsername(String username) {
+    Filters current = filters;
+    return exists(current == null ? null : current.usernames, username, userRepository::existsByUsername);
+  }
+
+  public boolean existsByEmail(String email) {
+    Filters current = filters;
+    return exists(current == null ? null : current.emails, email, userRepository::existsByEmail);
+  }
+
+  /**
+   * Record users that were just written, so later checks see them before the next rebuild.
+   */
+  public void addAll(List<User> users) {
+    synchronized (writeLock) {
+      Filters current = filters;
+      if (current != null) {
+        users.forEach(current::put);
+      }
+      if (addedDuringRebuild != null) {
+        addedDuringRebuild.addAll(users);
+      }
+    }
+  }
+
+  /**
+   * Scan the table into fresh filters and swap them in. Blocking.
+   */
+  public void rebuild() {
+    long rows = userRepository.count();
+    long capacity = Math.max(properties.getExpectedInsertions(), rows * 2);
+    Filters next = new Filters(capacity, properties.getFalsePositiveProbability());
+    synchronized (writeLock) {
+      addedDuringRebuild = new ArrayList<>();
+    }
+    try (Stream<User> users = userJdbcRepository.streamAll()) {
+      users.forEach(next::put);
+    } catch (RuntimeException e) {
+      synchronized (writeLock) {
+        addedDuringRebuild = null;
+      }
+      throw e;
+    }
+    synchronized (writeLock) {
+      addedDuringRebuild.forEach(next::put);
+      addedDuringRebuild = null;
+      filters = next;
+    }
+    logger.info("Rebuilt user existence filters for {} users: {} KiB each, {} hash functions, expected false-positive rate {}",
+        rows, next.usernames.memoryBytes() / 1024, next.usernames.hashFunctions(),
+        String.format(Locale.ROOT, "%.4f", next.usernames.expectedFalsePositiveProbability()));
+  }
+
+  public boolean isReady() {
+    return filters != null;
+  }
+
+  /**
+   * Publishes memory, estimated false-positive rate and how checks were answered:
+   * {@code result=absent} needed no query, {@code result=present} and {@code result=false-positive}
+   * went to the database, the latter finding nothing.
+   */
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    definitelyAbsent = Counter.builder("users.existence.checks").tag("result", "absent").register(registry);
+    possiblyPresent = Counter.builder("users.existence.checks").tag("result", "present").register(registry);
+    falsePositives = Counter.builder("users.existence.checks").tag("result", "false-positive").register(registry);
+    Gauge.builder("users.existence.filter.memory", this, f -> f.filters == null ? 0 : f.filters.memoryBytes())
+        .baseUnit("bytes")
+        .register(registry);
+    Gauge.builder("users.existence.filter.fpp", this, f -> f.filters == null ? 0 : f.filters.usernames.expectedFalsePositiveProbability())
+        .tag("index", "username")
+        .register(registry);
+    Gauge.builder("users.existence.filter.fpp", this, f -> f.filters == null ? 0 : f.filters.emails.expectedFalsePositiveProbability())
+        .tag("index", "email")
+        .register(registry);
+  }
+
+  private boolean exists(BloomFilter filter, String value, Predicate<String> repositoryCheck) {
+    if (filter == null || value == null || !ASCII.matcher(value).matches()) {
+      return repositoryCheck.test(value);
+    }
+    if (!filter.mightContain(normalize(value))) {
+      increment(definitelyAbsent);
+      return false;
+    }
+    boolean found = repositoryCheck.test(value);
+    increment(found ? possiblyPresent : falsePositives);
+    return found;
+  }
+
+  private static void increment(Counter counter) {
+    if (counter != null) {
+      counter.increment();
+    }
+  }
+
+  /**
+   * Primary-strength collation key: ignores case and accents and expands letters such as
+   * ß, æ and œ to ss, ae and oe. It is not the database's collation, only close to
+   * it for Latin text, so lookups with non-ASCII values skip the filter.
+   */
+  static String normalize(String value) {
+    byte[] key = PRIMARY.get().getCollationKey(value.strip()).toByteArray();
+    return new String(key, StandardCharsets.ISO_8859_1);
+  }
+
+  private static Collator primaryCollator() {
+    Collator collator = Collator.getInstance(Locale.ROOT);
+    collator.setStrength(Collator.PRIMARY);
+    collator.setDecomposition(Collator.FULL_DECOMPOSITION);
+    return collator;
+  }
+
+  private static final class Filters {
+
+    private final BloomFilter usernames;
+    private final BloomFilter emails;
+
+    private Filters(long capacity, double falsePositiveProbability) {
+      this.usernames = new BloomFilter(capacity, falsePositiveProbability);
+      this.emails = new BloomFilter(capacity, falsePositiveProbability);
+    }
+
+    private void put(User user) {
+      if (user.getUsername() != null) {
+        usernames.put(normalize(user.getUsername()));
+      }
+      if (user.getEmail() != null) {
+        emails.put(normalize(user.getEmail()));
+      }
+    }
+
+    private long memoryBytes() {
+      return usernames.memoryBytes() + emails.memoryBytes();
+    }
+  }
+}
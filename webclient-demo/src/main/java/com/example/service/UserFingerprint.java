@@ -0,0 +1,38 @@
+package com.example.service;
+
+import com.example.entity.User;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 64-bit FNV-1a hash over the synced columns of a {@link User}.
+ */
+public final class UserFingerprint {
+
+  private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long PRIME = 0x100000001b3L;
+
+  private UserFingerprint() {
+  }
+
+  public static long of(User user) {
+    long hash = OFFSET_BASIS;
+    hash = mix(hash, user.getName());
+    hash = mix(hash, user.getUsername());
+    hash = mix(hash, user.getEmail());
+    return hash;
+  }
+
+  private static long mix(long hash, String value) {
+    if (value != null) {
+      for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+        hash ^= b & 0xff;
+        hash *= PRIME;
+      }
+    }
+    // Field separator, so ("ab", "c") and ("a", "bc") hash differently; null differs from ""
+    hash ^= value == null ? 0xfe : 0xff;
+    hash *= PRIME;
+    return hash;
+  }
+}
@@ -0,0 +1,144 @@
+package com.example.service;
+
+import com.example.entity.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ETags for user responses and the pre-serialized {@code GET /api/users} body.
+ *
+ * <p>A user's ETag is its id plus its {@link UserFingerprint}. The collection ETag is the users
+ * table version ({@link com.example.repository.UserJdbcRepository#currentVersion}), which every
+ * upsert bumps in its own transaction, so all nodes hand out the same tag for the same data.
+ * The gzip body has a tag of its own, since it is a different representation.
+ */
+@Component
+public class UserResponseCache {
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private volatile SerializedUsers serialized;
+
+  /**
+   * Called after every write to the users table; drops the serialized body, which is out of
+   * date whichever node wrote.
+   */
+  public void invalidate() {
+    serialized = null;
+  }
+
+  /**
+   * Called when the table moved from version {@code from} to {@code to} without changing its
+   * rows; the serialized body built at {@code from} is kept under the new version's tags.
+   */
+  public synchronized void retag(long from, long to) {
+    SerializedUsers cached = serialized;
+    if (cached != null && cached.version() == from) {
+      serialized = new SerializedUsers(to, collectionETag(to), cached.json(), cached.gzip());
+    }
+  }
+
+  public static String collectionETag(long version) {
+    return "\"users-" + version + "\"";
+  }
+
+  /**
+   * The full collection at {@code version} as JSON and gzip bytes, built with {@code loader} at
+   * most once per version.
+   */
+  public SerializedUsers serializedUsers(long version, Supplier<List<User>> loader) {
+    SerializedUsers cached = serialized;
+    if (cached != null && cached.version() == version) {
+      return cached;
+    }
+    synchronized (this) {
+      cached = serialized;
+      if (cached != null && cached.version() == version) {
+        return cached;
+      }
+      byte[] json = toJson(loader.get());
+      SerializedUsers built = new SerializedUsers(version, collectionETag(version), json, gzip(json));
+      if (cached == null || cached.version() < version) {
+        serialized = built;
+      }
+      return built;
+    }
+  }
+
+  public static String userETag(User user) {
+    return "\"user-" + user.getId() + "-" + Long.toHexString(UserFingerprint.of(user)) + "\"";
+  }
+
+  /**
+   * {@code eTag} narrowed to one variant of the resource, e.g. a page of the collection.
+   */
+  public static String variantETag(String eTag, Object... parts) {
+    StringBuilder variant = new StringBuilder(eTag.length() + 16).append(eTag, 0, eTag.length() - 1);
+    for (Object part : parts) {
+      variant.append('-').append(part);
+    }
+    return variant.append('"').toString();
+  }
+
+  /**
+   * Tag of the gzip-encoded representation of the resource tagged {@code eTag}.
+   */
+  public static String gzipETag(String eTag) {
+    return variantETag(eTag, "gzip");
+  }
+
+  /**
+   * Whether an {@code If-None-Match} header value matches {@code eTag}, using the weak
+   * comparison RFC 9110 prescribes for that header.
+   */
+  public static boolean matches(String ifNoneMatch, String eTag) {
+    if (ifNoneMatch == null || eTag == null) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      candidate = candidate.strip();
+      if (candidate.startsWith("W/")) {
+        candidate = candidate.substring(2);
+      }
+      if (candidate.equals("*") || candidate.equals(eTag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private byte[] toJson(List<User> users) {
+    try {
+      return objectMapper.writeValueAsBytes(users);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not serialize users", e);
+    }
+  }
+
+  private static byte[] gzip(byte[] bytes) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(bytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  public record SerializedUsers(long version, String eTag, byte[] json, byte[] gzip) {
+
+    public String gzipETag() {
+      return UserResponseCache.gzipETag(eTag);
+    }
+  }
+}
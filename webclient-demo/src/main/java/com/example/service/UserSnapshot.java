@@ -0,0 +1,231 @@
+package com.example.service;
+
+import com.example.entity.User;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, compact copy of the users table for serving reads without the database.
+ *
+ * <p>Rows are packed into one {@code byte[]} in id order, each field as a two-byte length
+ * followed by its UTF-8 bytes. A sorted {@code long[]} of ids and an {@code int[]} of row
+ * offsets serve pages by binary search; an open-addressing {@code int[]} table with linear
+ * probing maps an id to its row. Whatever the row count, the snapshot is four arrays, so it adds
+ * next to nothing to GC marking; {@link User} objects are only created for rows being read.
+ */
+public final class UserSnapshot {
+
+  private static final int NULL_LENGTH = 0xFFFF;
+  private static final int EMPTY = -1;
+
+  private final long[] ids;
+  private final int[] offsets;
+  private final byte[] rows;
+  private final int[] table;
+  private final int mask;
+  private final long version;
+
+  private UserSnapshot(long[] ids, int[] offsets, byte[] rows, long version) {
+    this.ids = ids;
+    this.offsets = offsets;
+    this.rows = rows;
+    this.version = version;
+    // Load factor at most 0.5 keeps probe sequences short
+    int capacity = Integer.highestOneBit(Math.max(2, ids.length) * 2 - 1) << 1;
+    this.table = new int[capacity];
+    this.mask = capacity - 1;
+    Arrays.fill(table, EMPTY);
+    for (int row = 0; row < ids.length; row++) {
+      int slot = slot(ids[row]);
+      while (table[slot] != EMPTY) {
+        slot = (slot + 1) & mask;
+      }
+      table[slot] = row;
+    }
+  }
+
+  private UserSnapshot(UserSnapshot rows, long version) {
+    this.ids = rows.ids;
+    this.offsets = rows.offsets;
+    this.rows = rows.rows;
+    this.table = rows.table;
+    this.mask = rows.mask;
+    this.version = version;
+  }
+
+  public static UserSnapshot of(Collection<User> users) {
+    Builder builder = new Builder(users.size());
+    users.stream()
+        .sorted(Comparator.comparing(User::getId))
+        .forEach(builder::add);
+    return builder.build();
+  }
+
+  /**
+   * The user with the given id, decoded into a new {@link User}, or null.
+   */
+  public User get(long id) {
+    int slot = slot(id);
+    int row;
+    while ((row = table[slot]) != EMPTY) {
+      if (ids[row] == id) {
+        return decode(row);
+      }
+      slot = (slot + 1) & mask;
+    }
+    return null;
+  }
+
+  public List<User> getAll() {
+    List<User> users = new ArrayList<>(ids.length);
+    for (int row = 0; row < ids.length; row++) {
+      users.add(decode(row));
+    }
+    return users;
+  }
+
+  /**
+   * Up to {@code limit} users with ids greater than {@code afterId}, in id order.
+   */
+  public List<User> getPage(long afterId, int limit) {
+    int index = Arrays.binarySearch(ids, afterId);
+    int from = index >= 0 ? index + 1 : -index - 1;
+    int to = (int) Math.min(ids.length, (long) from + limit);
+    List<User> page = new ArrayList<>(Math.max(0, to - from));
+    for (int row = from; row < to; row++) {
+      page.add(decode(row));
+    }
+    return page;
+  }
+
+  public int size() {
+    return ids.length;
+  }
+
+  /**
+   * Version of the users table the snapshot was read at, or 0 if not given to the builder.
+   */
+  public long version() {
+    return version;
+  }
+
+  /**
+   * Whether both snapshots hold exactly the same rows, whatever their versions.
+   */
+  public boolean hasSameRowsAs(UserSnapshot other) {
+    return Arrays.equals(ids, other.ids) && Arrays.equals(offsets, other.offsets) && Arrays.equals(rows, other.rows);
+  }
+
+  /**
+   * This snapshot's rows marked with another version; the arrays are shared, not copied.
+   */
+  public UserSnapshot withVersion(long version) {
+    return new UserSnapshot(this, version);
+  }
+
+  /**
+   * Bytes held by the snapshot's arrays, excluding array headers.
+   */
+  public long memoryBytes() {
+    return ids.length * 8L + offsets.length * 4L + rows.length + table.length * 4L;
+  }
+
+  private int slot(long id) {
+    // SplitMix64 finalizer; sequential ids would otherwise fill runs of adjacent slots
+    long z = id;
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return (int) (z ^ (z >>> 31)) & mask;
+  }
+
+  private User decode(int row) {
+    int position = offsets[row];
+    String[] fields = new String[3];
+    for (int i = 0; i < fields.length; i++) {
+      int length = ((rows[position] & 0xff) << 8) | (rows[position + 1] & 0xff);
+      position += 2;
+      if (length != NULL_LENGTH) {
+        fields[i] = new String(rows, position, length, StandardCharsets.UTF_8);
+        position += length;
+      }
+    }
+    return new User(ids[row], fields[0], fields[1], fields[2]);
+  }
+
+  /**
+   * Packs users added in ascending id order, e.g. straight from
+   * {@link com.example.repository.UserJdbcRepository#streamAll()}.
+   */
+  public static final class Builder {
+
+    private long[] ids;
+    private int[] offsets;
+    private byte[] rows;
+    private int size;
+    private int position;
+    private long version;
+
+    public Builder(int expectedSize) {
+      int capacity = Math.max(16, expectedSize);
+      this.ids = new long[capacity];
+      this.offsets = new int[capacity];
+      this.rows = new byte[capacity * 48];
+    }
+
+    public Builder add(User user) {
+      long id = user.getId();
+      if (size > 0 && id <= ids[size - 1]) {
+        throw new IllegalArgumentException("Users must be added in ascending id order, got " + id
+            + " after " + ids[size - 1]);
+      }
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+        offsets = Arrays.copyOf(offsets, size * 2);
+      }
+      ids[size] = id;
+      offsets[size] = position;
+      size++;
+      write(user.getName());
+      write(user.getUsername());
+      write(user.getEmail());
+      return this;
+    }
+
+    /**
+     * The table version the rows were read at, e.g. from
+     * {@link com.example.repository.UserJdbcRepository#forEachUser}.
+     */
+    public Builder version(long version) {
+      this.version = version;
+      return this;
+    }
+
+    public UserSnapshot build() {
+      return new UserSnapshot(Arrays.copyOf(ids, size), Arrays.copyOf(offsets, size), Arrays.copyOf(rows, position),
+          version);
+    }
+
+    private void write(String value) {
+      byte[] bytes = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+      int length = bytes == null ? NULL_LENGTH : bytes.length;
+      if (bytes != null && length >= NULL_LENGTH) {
+        throw new IllegalArgumentException("Field longer than " + (NULL_LENGTH - 1) + " bytes");
+      }
+      int needed = position + 2 + (bytes == null ? 0 : length);
+      if (needed > rows.length) {
+        rows = Arrays.copyOf(rows, Math.toIntExact(Math.max(needed, rows.length * 2L)));
+      }
+      rows[position++] = (byte) (length >>> 8);
+      rows[position++] = (byte) length;
+      if (bytes != null) {
+        System.arraycopy(bytes, 0, rows, position, length);
+        position += length;
+      }
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package com.example.service;
+
+import com.example.config.SnapshotProperties;
+import com.example.entity.User;
+import com.example.repository.UserJdbcRepository;
+import com.example.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link UserSnapshot} when {@code snapshot.enabled} is set. It is built when
+ * the application is ready, after every sync and every {@code snapshot.refresh-interval}, and
+ * swapped in whole; readers see either the old or the new snapshot, never a mix.
+ */
+@Component
+public class UserSnapshotStore implements MeterBinder {
+
+  private static final Logger logger = LoggerFactory.getLogger(UserSnapshotStore.class);
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private UserJdbcRepository userJdbcRepository;
+
+  @Autowired
+  private SnapshotProperties properties;
+
+  @Autowired
+  private UserResponseCache responseCache;
+
+  @Autowired
+  private Scheduler blockingIoScheduler;
+
+  private final AtomicReference<UserSnapshot> current = new AtomicReference<>();
+  private final Disposable.Swap refreshes = Disposables.swap();
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    refreshes.update(Flux.interval(Duration.ZERO, properties.getRefreshInterval())
+        .onBackpressureDrop()
+        .concatMap(tick -> refresh()
+            .onErrorResume(error -> {
+              logger.warn("Rebuilding the user snapshot failed: {}", error.getMessage());
+              return Mono.empty();
+            }), 1)
+        .subscribe());
+  }
+
+  @PreDestroy
+  public void stop() {
+    refreshes.dispose();
+  }
+
+  /**
+   * The snapshot to serve from, or null when disabled or not built yet.
+   */
+  public UserSnapshot current() {
+    return current.get();
+  }
+
+  /**
+   * Rebuild on the blocking I/O scheduler; completes empty at once when disabled.
+   */
+  public Mono<Void> refresh() {
+    if (!properties.isEnabled()) {
+      return Mono.empty();
+    }
+    return Mono.fromRunnable(this::rebuild)
+        .subscribeOn(blockingIoScheduler)
+        .then();
+  }
+
+  /**
+   * Scan the table into a new snapshot and swap it in. When it holds the same rows as the
+   * current one, the current rows are kept and only marked with the newer version, so the
+   * serialized body stays cached while clients holding the old ETag revalidate. Blocking;
+   * rebuilds run one at a time, so a later rebuild never swaps in older data than an earlier one.
+   */
+  public synchronized void rebuild() {
+    long start = System.nanoTime();
+    UserSnapshot.Builder builder = new UserSnapshot.Builder(Math.toIntExact(userRepository.count()));
+    UserSnapshot snapshot = builder.version(userJdbcRepository.forEachUser(builder::add)).build();
+    UserSnapshot previous = current.get();
+    if (previous != null && previous.hasSameRowsAs(snapshot)) {
+      if (previous.version() != snapshot.version()) {
+        current.set(previous.withVersion(snapshot.version()));
+        responseCache.retag(previous.version(), snapshot.version());
+      }
+      logger.debug("User snapshot unchanged: {} users at version {}", snapshot.size(), snapshot.version());
+      return;
+    }
+    current.set(snapshot);
+    // Serialized responses were built from the previous snapshot
+    responseCache.invalidate();
+    logger.info("Rebuilt user snapshot: {} users, {} KiB in {} ms", snapshot.size(),
+        snapshot.memoryBytes() / 1024, Duration.ofNanos(System.nanoTime() - start).toMillis());
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("users.snapshot.size", current, ref -> ref.get() == null ? 0 : ref.get().size())
+        .register(registry);
+    Gauge.builder("users.snapshot.memory", current, ref -> ref.get() == null ? 0 : ref.get().memoryBytes())
+        .baseUnit("bytes")
+        .register(registry);
+  }
+}
@@ -0,0 +1,273 @@
+package com.example.service;
+
+import com.example.config.SyncJobProperties;
+import com.example.dto.IngestionProgress;
+import com.example.dto.SyncReport;
+import com.example.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs the syncs that rewrite the users table one at a time. A request for an operation that is
+ * already running or queued joins that run instead of starting another, so concurrent callers
+ * share one upstream fetch and one save. Runs that cannot start yet wait in a queue of at most
+ * {@code sync.job.queue-capacity}, ordered by {@link Operation} priority and then by arrival.
+ * When the queue is full a new run takes the place of the last queued run of lower priority,
+ * which fails with {@link SyncRejectedException}; if there is none, the new run is rejected.
+ * Runs are not cancelled when their callers go away.
+ * <p>
+ * Incremental syncs always run under the database lock, whoever asked for them, so a sync job
+ * that joins a run started by {@code POST /sync} is still guarded against other nodes.
+ */
+@Service
+public class UserSyncCoordinator {
+
+  private static final Logger logger = LoggerFactory.getLogger(UserSyncCoordinator.class);
+
+  /**
+   * What a run does. An incremental sync writes only changed rows and so finishes quickly; it
+   * runs before the full rewrites, which would otherwise hold it up for a whole feed.
+   */
+  public enum Operation {
+    FETCH_AND_SAVE(1), INGEST(1), INCREMENTAL_SYNC(0), R2DBC_FETCH_AND_SAVE(1);
+
+    // Lower runs first
+    private final int priority;
+
+    Operation(int priority) {
+      this.priority = priority;
+    }
+
+    boolean runsBefore(Operation other) {
+      return priority < other.priority;
+    }
+  }
+
+  static final String LOCK_NAME = "user-sync";
+
+  private final UserApiClientService userApiClientService;
+  private final SyncLockService syncLockService;
+  private final SyncJobProperties properties;
+  private final Scheduler blockingIoScheduler;
+
+  // Guarded by this
+  private SyncRun<?> running;
+  private final List<SyncRun<?>> queue = new ArrayList<>();
+
+  public UserSyncCoordinator(UserApiClientService userApiClientService, SyncLockService syncLockService,
+                             SyncJobProperties properties, Scheduler blockingIoScheduler) {
+    this.userApiClientService = userApiClientService;
+    this.syncLockService = syncLockService;
+    this.properties = properties;
+    this.blockingIoScheduler = blockingIoScheduler;
+  }
+
+  /**
+   * Fetch all users and save them, or join the fetch-and-save that is already running or queued.
+   */
+  public Mono<List<User>> fetchAndSaveUsers() {
+    return Mono.defer(() -> submitFetchAndSave().result());
+  }
+
+  public SyncRun<List<User>> submitFetchAndSave() {
+    return submit(Operation.FETCH_AND_SAVE, progress -> userApiClientService.fetchAndSaveUsers());
+  }
+
+  /**
+   * Run {@code fetchAndSave}, the R2DBC fetch-and-save, in turn with the other writers of the
+   * users table, or join the one that is already running or queued. Emits the number of users
+   * written.
+   */
+  public Mono<Long> fetchAndSaveUsersReactively(Supplier<Mono<Long>> fetchAndSave) {
+    return Mono.defer(() -> this.<Long>submit(Operation.R2DBC_FETCH_AND_SAVE, progress -> fetchAndSave.get()).result());
+  }
+
+  /**
+   * Stream the upstream feed into the database, or join the ingest that is already running or
+   * queued. Progress carries one item per chunk; the result is the last one, or empty if the
+   * feed had no users.
+   */
+  public SyncRun<IngestionProgress> submitIngest() {
+    return submit(Operation.INGEST, progress -> userApiClientService.ingestUsers()
+        .doOnNext(progress)
+        .takeLast(1)
+        .next());
+  }
+
+  /**
+   * Sync incrementally, or join the incremental sync that is already running or queued. The
+   * result is empty if another node holds the sync lock.
+   */
+  public Mono<SyncReport> syncUsersIncrementally() {
+    return Mono.defer(() -> submitIncrementalSync(Duration.ZERO).result());
+  }
+
+  /**
+   * Queue an incremental sync that takes the database lock and, once done, keeps it for
+   * {@code heldAtLeastFor}. If one is already running or queued the caller joins it, and the
+   * lock is kept for as long as the caller that queued it asked.
+   */
+  public SyncRun<SyncReport> submitIncrementalSync(Duration heldAtLeastFor) {
+    return submit(Operation.INCREMENTAL_SYNC, progress -> syncUnderLock(progress, heldAtLeastFor));
+  }
+
+  /**
+   * A running or queued run.
+   */
+  public synchronized Optional<SyncRun<?>> getRun(String id) {
+    return runs().stream().filter(run -> run.getId().equals(id)).findFirst();
+  }
+
+  /**
+   * The running run, if any, followed by the queued ones in the order they will run.
+   */
+  public synchronized List<SyncRun<?>> getRuns() {
+    return runs();
+  }
+
+  /**
+   * Take the database lock, sync, and release it. Empty if another node holds the lock.
+   * The lease is renewed after every chunk; the sync fails if it ran out in between.
+   */
+  private Mono<SyncReport> syncUnderLock(Consumer<SyncReport> progress, Duration heldAtLeastFor) {
+    Mono<Void> release = Mono.<Void>fromRunnable(() -> syncLockService.release(LOCK_NAME, properties.getNodeId(), heldAtLeastFor))
+        .subscribeOn(blockingIoScheduler);
+    return Mono.fromCallable(() -> syncLockService.tryAcquire(LOCK_NAME, properties.getNodeId(), properties.getLockLease()))
+        .subscribeOn(blockingIoScheduler)
+        .flatMap(acquired -> {
+          if (!acquired) {
+            return Mono.empty();
+          }
+          // Called on the blocking I/O scheduler once each chunk is written. The service reports
+          // one report object as its counts grow, so publish copies
+          return userApiClientService.syncUsersIncrementally(report -> {
+                renewLock();
+                progress.accept(new SyncReport(
+                    report.getInserted(), report.getUpdated(), report.getUnchanged(), report.getDeletedUpstream()));
+              })
+              .onErrorResume(error -> release.then(Mono.<SyncReport>error(error)))
+              .flatMap(report -> release.thenReturn(report));
+        });
+  }
+
+  private void renewLock() {
+    if (!syncLockService.renew(LOCK_NAME, properties.getNodeId(), properties.getLockLease())) {
+      throw new IllegalStateException("Sync lock lease ran out before it was renewed; another node may be syncing");
+    }
+  }
+
+  private <T> SyncRun<T> submit(Operation operation, Function<Consumer<T>, Mono<T>> task) {
+    SyncRun<T> run;
+    SyncRun<?> displaced = null;
+    boolean startNow = false;
+    synchronized (this) {
+      SyncRun<T> pending = pending(operation);
+      if (pending != null) {
+        pending.join();
+        return pending;
+      }
+      run = new SyncRun<>(operation, task);
+      if (running == null) {
+        running = run;
+        startNow = true;
+      } else {
+        if (queue.size() >= properties.getQueueCapacity()) {
+          displaced = lastQueuedAfter(operation);
+          if (displaced == null) {
+            throw new SyncRejectedException("Sync queue is full (" + properties.getQueueCapacity() + ")");
+          }
+          queue.remove(displaced);
+        }
+        enqueue(run);
+      }
+    }
+    if (displaced != null) {
+      logger.info("{} displaced {}", run, displaced);
+      displaced.fail(new SyncRejectedException("Sync queue is full; displaced by " + operation));
+    }
+    if (startNow) {
+      start(run);
+    }
+    return run;
+  }
+
+  /**
+   * Queue {@code run} behind every queued run that runs before it or with it.
+   */
+  private void enqueue(SyncRun<?> run) {
+    int position = queue.size();
+    while (position > 0 && run.getOperation().runsBefore(queue.get(position - 1).getOperation())) {
+      position--;
+    }
+    queue.add(position, run);
+  }
+
+  /**
+   * The last queued run that {@code operation} runs before, or null.
+   */
+  private SyncRun<?> lastQueuedAfter(Operation operation) {
+    for (int i = queue.size() - 1; i >= 0; i--) {
+      if (operation.runsBefore(queue.get(i).getOperation())) {
+        return queue.get(i);
+      }
+    }
+    return null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> SyncRun<T> pending(Operation operation) {
+    for (SyncRun<?> run : runs()) {
+      if (run.getOperation() == operation) {
+        return (SyncRun<T>) run;
+      }
+    }
+    return null;
+  }
+
+  private List<SyncRun<?>> runs() {
+    List<SyncRun<?>> runs = new ArrayList<>(queue.size() + 1);
+    if (running != null) {
+      runs.add(running);
+    }
+    runs.addAll(queue);
+    return runs;
+  }
+
+  private <T> void start(SyncRun<T> run) {
+    logger.info("Starting {}", run);
+    run.start()
+        .map(Optional::of)
+        .defaultIfEmpty(Optional.empty())
+        .subscribe(
+            outcome -> finish(run, () -> run.complete(outcome.orElse(null))),
+            error -> finish(run, () -> run.fail(error)));
+  }
+
+  /**
+   * Free the slot before publishing the outcome, so a caller that submits again on seeing it
+   * starts a new run rather than joining the finished one; then start the next queued run.
+   */
+  private void finish(SyncRun<?> run, Runnable publish) {
+    SyncRun<?> next;
+    synchronized (this) {
+      next = queue.isEmpty() ? null : queue.remove(0);
+      running = next;
+    }
+    publish.run();
+    logger.info("Finished {}", run);
+    if (next != null) {
+      start(next);
+    }
+  }
+}
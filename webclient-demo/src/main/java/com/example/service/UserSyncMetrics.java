@@ -0,0 +1,56 @@
+package com.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the user sync path. Rates such as users per second come from the counters.
+ */
+@Component
+public class UserSyncMetrics {
+
+  private final MeterRegistry registry;
+  private final Counter usersFetched;
+  private final Counter usersWritten;
+  private final Timer batchWrite;
+
+  public UserSyncMetrics(MeterRegistry registry) {
+    this.registry = registry;
+    this.usersFetched = Counter.builder("users.fetched")
+        .description("Users received from the upstream API")
+        .register(registry);
+    this.usersWritten = Counter.builder("users.written")
+        .description("Users written to the database")
+        .register(registry);
+    this.batchWrite = Timer.builder("users.batch.write")
+        .description("Latency of one bulk user write")
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  public void userFetched() {
+    usersFetched.increment();
+  }
+
+  public void recordFetch(long durationNanos, boolean success) {
+    Timer.builder("users.fetch")
+        .description("Latency of one complete upstream user fetch")
+        .tag("outcome", success ? "success" : "error")
+        .publishPercentileHistogram()
+        .register(registry)
+        .record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordBatchWrite(long durationNanos, int users) {
+    batchWrite.record(durationNanos, TimeUnit.NANOSECONDS);
+    usersWritten.increment(users);
+  }
+
+  public void retry(String operation) {
+    registry.counter("upstream.retries", "operation", operation).increment();
+  }
+}
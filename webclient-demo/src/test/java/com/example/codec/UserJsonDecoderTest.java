@@ -0,0 +1,108 @@
+package com.example.codec;
+
+import com.example.entity.User;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserJsonDecoderTest {
+
+    private static final ResolvableType USER = ResolvableType.forClass(User.class);
+
+    private final UserJsonDecoder decoder = new UserJsonDecoder(new ObjectMapper(), 256);
+
+    @Test
+    void testDecode_ArraySplitAcrossBuffers() {
+        // Given - buffer boundaries fall inside names and between elements
+        String json = "[{\"id\":1,\"name\":\"John Doe\",\"username\":\"johndoe\",\"email\":\"john@example.com\"},"
+                + "{\"id\":2,\"name\":\"Jane Smith\",\"username\":\"janesmith\",\"email\":\"jane@example.com\"}]";
+
+        // When & Then
+        StepVerifier.create(decoder.decode(chunks(json, 7), USER, MediaType.APPLICATION_JSON, Collections.emptyMap()))
+                .assertNext(user -> {
+                    assertThat(user.getId()).isEqualTo(1L);
+                    assertThat(user.getName()).isEqualTo("John Doe");
+                })
+                .assertNext(user -> assertThat(user.getEmail()).isEqualTo("jane@example.com"))
+                .verifyComplete();
+    }
+
+    @Test
+    void testDecode_SkipsNestedFieldsUnknownToUser() {
+        // Given - the shape jsonplaceholder returns
+        String json = "[{\"id\":1,\"name\":\"Leanne Graham\",\"username\":\"Bret\",\"email\":\"Sincere@april.biz\","
+                + "\"address\":{\"street\":\"Kulas Light\",\"geo\":{\"lat\":\"-37.3159\"}},\"tags\":[1,[2]]}]";
+        ObjectMapper lenient = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        // When & Then
+        StepVerifier.create(new UserJsonDecoder(lenient, -1)
+                        .decode(chunks(json, 5), USER, MediaType.APPLICATION_JSON, Collections.emptyMap()))
+                .assertNext(user -> assertThat(user.getUsername()).isEqualTo("Bret"))
+                .verifyComplete();
+    }
+
+    @Test
+    void testDecode_SingleObject() {
+        // Given
+        String json = "{\"id\":3,\"name\":\"Bob Brown\",\"username\":\"bobbrown\",\"email\":\"bob@example.com\"}";
+
+        // When & Then
+        StepVerifier.create(decoder.decodeToMono(chunks(json, 16), USER, MediaType.APPLICATION_JSON, Collections.emptyMap()))
+                .assertNext(user -> assertThat(user.getId()).isEqualTo(3L))
+                .verifyComplete();
+    }
+
+    @Test
+    void testDecode_ElementLargerThanLimitFails() {
+        // Given
+        String json = "[{\"id\":1,\"name\":\"" + "x".repeat(1024) + "\",\"username\":\"u\",\"email\":\"e\"}]";
+
+        // When & Then
+        StepVerifier.create(decoder.decode(chunks(json, 64), USER, MediaType.APPLICATION_JSON, Collections.emptyMap()))
+                .verifyError(DataBufferLimitException.class);
+    }
+
+    @Test
+    void testDecode_TruncatedBodyFails() {
+        // Given
+        String json = "[{\"id\":1,\"name\":\"John Doe\"";
+
+        // When & Then
+        StepVerifier.create(decoder.decode(chunks(json, 8), USER, MediaType.APPLICATION_JSON, Collections.emptyMap()))
+                .verifyError(DecodingException.class);
+    }
+
+    @Test
+    void testCanDecode_OnlyUserAsJson() {
+        assertThat(decoder.canDecode(USER, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(decoder.canDecode(ResolvableType.forClass(String.class), MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(decoder.canDecode(USER, MediaType.APPLICATION_XML)).isFalse();
+    }
+
+    private static Flux<DataBuffer> chunks(String json, int chunkSize) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            int length = Math.min(chunkSize, bytes.length - offset);
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(bytes, offset, offset + length)));
+        }
+        return Flux.fromIterable(buffers);
+    }
+}
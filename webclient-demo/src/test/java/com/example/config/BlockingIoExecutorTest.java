@@ -0,0 +1,43 @@
+package com.example.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BlockingIoExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final BlockingIoExecutor executor =
+            new BlockingIoExecutor(1, 1, Executors.defaultThreadFactory());
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_WhenQueueIsFull_ShouldRejectAndCount() {
+        // Given - one running task and one queued task fill the executor
+        executor.execute(this::awaitRelease);
+        executor.execute(this::awaitRelease);
+
+        // When & Then
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(this::awaitRelease));
+        assertThat(executor.getRejectedCount()).isEqualTo(1);
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
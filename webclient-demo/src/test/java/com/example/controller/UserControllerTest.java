@@ -1,7 +1,12 @@
 package com.example.controller;
 
+import com.example.dto.SyncJob;
 import com.example.entity.User;
+import com.example.service.SyncJobService;
+import com.example.service.SyncRejectedException;
 import com.example.service.UserApiClientService;
+import com.example.service.UserResponseCache;
+import com.example.service.UserSyncCoordinator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,15 +14,21 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -25,12 +36,20 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(UserController.class)
 class UserControllerTest {
 
+    private static final String COLLECTION_ETAG = "\"users-7\"";
+
     @Autowired
     private MockMvc mockMvc;
 
     @MockBean
     private UserApiClientService userApiClientService;
 
+    @MockBean
+    private SyncJobService syncJobService;
+
+    @MockBean
+    private UserSyncCoordinator syncCoordinator;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -42,7 +61,7 @@ class UserControllerTest {
                 new User(2L, "Jane Smith", "janesmith", "jane@example.com")
         );
 
-        when(userApiClientService.fetchAndSaveUsers()).thenReturn(Mono.just(users));
+        when(syncCoordinator.fetchAndSaveUsers()).thenReturn(Mono.just(users));
 
         // When & Then - Test async processing is started and completes successfully
         mockMvc.perform(post("/api/users/fetch-and-save")
@@ -51,6 +70,42 @@ class UserControllerTest {
                 .andExpect(request().asyncStarted());
     }
 
+    @Test
+    void testFetchAndSaveUsers_QueueFullIsTooManyRequests() throws Exception {
+        // Given
+        when(syncCoordinator.fetchAndSaveUsers()).thenReturn(Mono.error(new SyncRejectedException("Sync queue is full (1)")));
+
+        // When & Then
+        MvcResult result = mockMvc.perform(post("/api/users/fetch-and-save"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", UserController.SYNC_RETRY_AFTER_SECONDS));
+    }
+
+    @Test
+    void testIngestUsers_QueueFullIsTooManyRequests() throws Exception {
+        // Given
+        when(syncCoordinator.submitIngest()).thenThrow(new SyncRejectedException("Sync queue is full (1)"));
+
+        // When & Then
+        mockMvc.perform(post("/api/users/ingest"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", UserController.SYNC_RETRY_AFTER_SECONDS));
+        verify(userApiClientService, never()).ingestUsers();
+    }
+
+    @Test
+    void testGetSyncRunProgress_NotFound() throws Exception {
+        // Given
+        when(syncCoordinator.getRun("missing")).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/users/sync-runs/missing/progress"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testGetAllUsers_Success() throws Exception {
         // Given
@@ -58,6 +113,7 @@ class UserControllerTest {
                 new User(1L, "John Doe", "johndoe", "john@example.com")
         );
 
+        when(userApiClientService.getUsersETag()).thenReturn(COLLECTION_ETAG);
         when(userApiClientService.getAllUsers()).thenReturn(users);
 
         // When & Then
@@ -65,33 +121,197 @@ class UserControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", COLLECTION_ETAG))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].name", is("John Doe")));
     }
 
+    @Test
+    void testGetAllUsers_MatchingETagIsNotModified() throws Exception {
+        // Given
+        when(userApiClientService.getUsersETag()).thenReturn(COLLECTION_ETAG);
+
+        // When & Then
+        mockMvc.perform(get("/api/users").header("If-None-Match", COLLECTION_ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", COLLECTION_ETAG))
+                .andExpect(content().string(""));
+        verify(userApiClientService, never()).getAllUsers();
+    }
+
+    @Test
+    void testGetAllUsers_ServesPrecompressedBody() throws Exception {
+        // Given
+        byte[] gzip = {0x1f, (byte) 0x8b, 1, 2, 3};
+        when(userApiClientService.getUsersETag()).thenReturn(COLLECTION_ETAG);
+        when(userApiClientService.isPrecompressed()).thenReturn(true);
+        when(userApiClientService.getAllUsersSerialized()).thenReturn(
+                new UserResponseCache.SerializedUsers(1, COLLECTION_ETAG, "[]".getBytes(), gzip));
+
+        // When & Then
+        mockMvc.perform(get("/api/users").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", "\"users-7-gzip\""))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().bytes(gzip));
+        verify(userApiClientService, never()).getAllUsers();
+    }
+
+    @Test
+    void testGetAllUsers_GzipBodyIsValidatedAgainstItsOwnETag() throws Exception {
+        // Given
+        when(userApiClientService.getUsersETag()).thenReturn(COLLECTION_ETAG);
+        when(userApiClientService.isPrecompressed()).thenReturn(true);
+
+        // When & Then
+        mockMvc.perform(get("/api/users")
+                        .header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", "\"users-7-gzip\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"users-7-gzip\""));
+        verify(userApiClientService, never()).getAllUsersSerialized();
+    }
+
     @Test
     void testGetUserById_Found() throws Exception {
         // Given
         User user = new User(1L, "John Doe", "johndoe", "john@example.com");
-        when(userApiClientService.getUserById(1L)).thenReturn(user);
+        when(userApiClientService.loadUserById(1L)).thenReturn(Mono.just(user));
 
         // When & Then
-        mockMvc.perform(get("/api/users/1")
+        MvcResult result = mockMvc.perform(get("/api/users/1")
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", UserResponseCache.userETag(user)))
                 .andExpect(jsonPath("$.name", is("John Doe")))
                 .andExpect(jsonPath("$.username", is("johndoe")));
     }
 
+    @Test
+    void testGetUserById_MatchingETagIsNotModified() throws Exception {
+        // Given
+        User user = new User(1L, "John Doe", "johndoe", "john@example.com");
+        when(userApiClientService.loadUserById(1L)).thenReturn(Mono.just(user));
+
+        // When & Then
+        MvcResult result = mockMvc.perform(get("/api/users/1")
+                        .header("If-None-Match", UserResponseCache.userETag(user)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     void testGetUserById_NotFound() throws Exception {
         // Given
-        when(userApiClientService.getUserById(999L)).thenReturn(null);
+        when(userApiClientService.loadUserById(999L)).thenReturn(Mono.empty());
 
         // When & Then
-        mockMvc.perform(get("/api/users/999")
+        MvcResult result = mockMvc.perform(get("/api/users/999")
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetUsersByIds_ReturnsUsersInRequestOrder() throws Exception {
+        // Given
+        List<User> users = Arrays.asList(
+                new User(2L, "Jane Smith", "janesmith", "jane@example.com"),
+                new User(1L, "John Doe", "johndoe", "john@example.com")
+        );
+        when(userApiClientService.getUsersByIds(List.of(2L, 1L, 3L))).thenReturn(Mono.just(users));
+
+        // When & Then
+        MvcResult result = mockMvc.perform(get("/api/users").param("ids", "2,1,3"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(2)))
+                .andExpect(jsonPath("$[1].id", is(1)));
+    }
+
+    @Test
+    void testGetUsersByIds_TooManyIdsIsBadRequest() throws Exception {
+        // Given
+        when(userApiClientService.getUsersByIds(any()))
+                .thenReturn(Mono.error(new IllegalArgumentException("At most 500 ids per request, got 501")));
+
+        // When & Then
+        MvcResult result = mockMvc.perform(get("/api/users").param("ids", "1,2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetUsersPage_ReturnsNextCursorHeader() throws Exception {
+        // Given
+        List<User> page = Arrays.asList(
+                new User(11L, "John Doe", "johndoe", "john@example.com"),
+                new User(12L, "Jane Smith", "janesmith", "jane@example.com")
+        );
+        when(userApiClientService.getUsersETag()).thenReturn(COLLECTION_ETAG);
+        when(userApiClientService.getUsersPage(10L, 2)).thenReturn(page);
+
+        // When & Then
+        mockMvc.perform(get("/api/users")
+                        .param("afterId", "10")
+                        .param("limit", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-After-Id", "12"))
+                .andExpect(header().string("ETag", "\"users-7-10-2\""))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].username", is("janesmith")));
+    }
+
+    @Test
+    void testStartSyncJob_ReturnsAcceptedWithLocation() throws Exception {
+        // Given
+        SyncJob job = new SyncJob("job-1", SyncJob.Trigger.MANUAL, "node-a", Instant.now());
+        when(syncJobService.submit(SyncJob.Trigger.MANUAL)).thenReturn(job);
+
+        // When & Then
+        mockMvc.perform(post("/api/users/sync-jobs"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/users/sync-jobs/job-1"))
+                .andExpect(jsonPath("$.id", is("job-1")))
+                .andExpect(jsonPath("$.status", is("RUNNING")));
+    }
+
+    @Test
+    void testGetSyncJob_NotFound() throws Exception {
+        // Given
+        when(syncJobService.getJob("missing")).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/users/sync-jobs/missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testExists_ReportsRequestedKeysOnly() throws Exception {
+        // Given
+        when(userApiClientService.usernameExists("johndoe")).thenReturn(false);
+
+        // When & Then
+        mockMvc.perform(get("/api/users/exists").param("username", "johndoe"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username", is(false)))
+                .andExpect(jsonPath("$.email").doesNotExist());
+    }
+}
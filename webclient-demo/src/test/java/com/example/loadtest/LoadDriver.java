@@ -0,0 +1,94 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load generator: {@code concurrency} threads each issue requests back to back.
+ * Latencies of requests started after the warmup are recorded in microseconds. Being closed-loop,
+ * a slow response also delays the next request, so tail latencies are those seen by clients
+ * waiting on each other, not by an open stream of independent arrivals.
+ */
+final class LoadDriver {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    /**
+     * One request; returns whether it succeeded. Exceptions count as failures.
+     */
+    @FunctionalInterface
+    interface Request {
+        boolean call() throws Exception;
+    }
+
+    private final String scenario;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private Duration sampleInterval = Duration.ofMillis(100);
+    private Runnable sampler = () -> { };
+
+    LoadDriver(String scenario, int concurrency, Duration warmup, Duration duration) {
+        this.scenario = scenario;
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+
+    /**
+     * Run {@code sampler} on the calling thread every {@code interval} while measuring.
+     */
+    LoadDriver sampling(Duration interval, Runnable sampler) {
+        this.sampleInterval = interval;
+        this.sampler = sampler;
+        return this;
+    }
+
+    LoadResult run(Request request) throws InterruptedException {
+        Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        AtomicLong errors = new AtomicLong();
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long deadline = measureFrom + duration.toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> {
+                long start;
+                while ((start = System.nanoTime()) < deadline && !Thread.currentThread().isInterrupted()) {
+                    boolean success;
+                    try {
+                        success = request.call();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        success = false;
+                    }
+                    if (start >= measureFrom) {
+                        histogram.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, (System.nanoTime() - start) / 1000));
+                        if (!success) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                }
+            });
+        }
+
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, measureFrom - System.nanoTime()));
+        while (System.nanoTime() < deadline) {
+            sampler.run();
+            TimeUnit.NANOSECONDS.sleep(Math.min(sampleInterval.toNanos(), Math.max(0, deadline - System.nanoTime())));
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+            workers.shutdownNow();
+        }
+        return new LoadResult(scenario, concurrency, duration, histogram, errors.get());
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes load-test results under {@code target/loadtest}. Each scenario gets an HdrHistogram
+ * percentile distribution ({@code <scenario>.hgrm}, in milliseconds), which plots with
+ * HdrHistogram's histogram plotter. One line per scenario is appended to {@code summary.csv}. Rows
+ * are labelled with {@code -Dloadtest.label} or the current commit, so runs of different
+ * commits can be concatenated and compared.
+ */
+final class LoadReport {
+
+    static final Path DIRECTORY = Path.of("target", "loadtest");
+
+    private static final String SUMMARY_HEADER =
+            "label,scenario,concurrency,seconds,requests,errors,throughput_rps,p50_ms,p99_ms,p999_ms,max_ms,extra\n";
+    private static final String LABEL = label();
+
+    private LoadReport() {
+    }
+
+    static void write(LoadResult result) throws IOException {
+        write(result, Map.of());
+    }
+
+    /**
+     * @param extra scenario-specific figures, e.g. heap per connection, added to the summary line
+     */
+    static void write(LoadResult result, Map<String, ?> extra) throws IOException {
+        Files.createDirectories(DIRECTORY);
+        try (PrintStream out = new PrintStream(
+                Files.newOutputStream(DIRECTORY.resolve(result.scenario() + ".hgrm")), false, StandardCharsets.UTF_8)) {
+            result.latencies().outputPercentileDistribution(out, 1000.0);
+        }
+
+        StringBuilder extras = new StringBuilder();
+        extra.forEach((key, value) -> extras.append(extras.length() == 0 ? "" : ";").append(key).append('=').append(value));
+        String line = String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%s%n",
+                LABEL, result.scenario(), result.concurrency(), result.duration().toSeconds(),
+                result.requests(), result.errors(), result.throughput(),
+                result.percentileMillis(50), result.percentileMillis(99), result.percentileMillis(99.9),
+                result.latencies().getMaxValue() / 1000.0, extras);
+        Path summary = DIRECTORY.resolve("summary.csv");
+        if (Files.notExists(summary)) {
+            Files.writeString(summary, SUMMARY_HEADER);
+        }
+        Files.writeString(summary, line, StandardOpenOption.APPEND);
+        System.out.print(SUMMARY_HEADER + line);
+    }
+
+    private static String label() {
+        String label = System.getProperty("loadtest.label");
+        if (label != null && !label.isBlank()) {
+            return label;
+        }
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            String commit = new String(git.getInputStream().readAllBytes(), StandardCharsets.UTF_8).strip();
+            if (git.waitFor(5, TimeUnit.SECONDS) && git.exitValue() == 0 && !commit.isEmpty()) {
+                return commit;
+            }
+        } catch (IOException e) {
+            // No git on the path; fall through
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "local";
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+
+/**
+ * Latencies in microseconds of the requests measured by {@link LoadDriver}.
+ */
+record LoadResult(String scenario, int concurrency, Duration duration, Histogram latencies, long errors) {
+
+    long requests() {
+        return latencies.getTotalCount();
+    }
+
+    double throughput() {
+        return requests() / (duration.toNanos() / 1e9);
+    }
+
+    double percentileMillis(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.loadtest;
+
+import com.example.WebclientDemoApplication;
+import com.example.entity.User;
+import com.example.repository.UserJdbcRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Drives {@code GET /api/users/{id}} with a fixed number of concurrent keep-alive connections
+ * against each web runtime mode. {@link LoadReport} records throughput and latency percentiles,
+ * plus heap per connection and thread counts. Client and server share the JVM, so the figures
+ * are for comparing modes with each other rather than absolute capacity.
+ */
+@Tag("loadtest")
+class RuntimeModeLoadTest {
+
+    private static final int USERS = 10_000;
+    private static final int CONNECTIONS = Integer.getInteger("loadtest.connections", 200);
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.seconds", 20));
+
+    @ParameterizedTest
+    @ValueSource(strings = {"servlet", "vthreads", "webflux"})
+    void measureRuntimeMode(String mode) throws Exception {
+        assumeTrue(!"vthreads".equals(mode) || Runtime.version().feature() >= 21,
+                "virtual threads need Java 21");
+
+        try (ConfigurableApplicationContext context = startApplication(mode)) {
+            context.getBean(UserJdbcRepository.class).upsertAll(users());
+            URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            // Heap and threads are sampled under load; the heap is compared with a post-GC reading after it
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            long[] heap = new long[2];
+            int[] peakThreads = new int[1];
+            LoadResult result = new LoadDriver("runtime-mode-" + mode, CONNECTIONS, WARMUP, DURATION)
+                    .sampling(Duration.ofMillis(100), () -> {
+                        heap[0] += memory.getHeapMemoryUsage().getUsed();
+                        heap[1]++;
+                        peakThreads[0] = Math.max(peakThreads[0], threads.getThreadCount());
+                    })
+                    .run(() -> {
+                        long id = ThreadLocalRandom.current().nextLong(1, USERS + 1);
+                        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/api/users/" + id)).GET().build();
+                        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                    });
+
+            System.gc();
+            long idleHeap = memory.getHeapMemoryUsage().getUsed();
+            long averageHeap = heap[1] == 0 ? idleHeap : heap[0] / heap[1];
+            Map<String, Object> extra = new LinkedHashMap<>();
+            extra.put("heap_per_connection_bytes", Math.max(0, averageHeap - idleHeap) / CONNECTIONS);
+            extra.put("idle_threads", threads.getThreadCount());
+            extra.put("peak_threads", peakThreads[0]);
+            LoadReport.write(result, extra);
+
+            assertThat(result.errors()).isZero();
+            assertThat(result.requests()).isPositive();
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(String mode) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest-" + mode + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--sync.job.enabled=false",
+                "--auth.base-url=http://localhost:1",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example=WARN"));
+        if (!"servlet".equals(mode)) {
+            args.add("--spring.profiles.active=" + mode);
+        }
+        return new SpringApplicationBuilder(WebclientDemoApplication.class).run(args.toArray(new String[0]));
+    }
+
+    private static List<User> users() {
+        List<User> users = new ArrayList<>(USERS);
+        for (long id = 1; id <= USERS; id++) {
+            users.add(new User(id, "User " + id, "user" + id, "user" + id + "@example.com"));
+        }
+        return users;
+    }
+}
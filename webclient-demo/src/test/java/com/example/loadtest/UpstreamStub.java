@@ -0,0 +1,134 @@
+package com.example.loadtest;
+
+import com.example.dto.LoginResponse;
+import com.example.entity.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for the auth and users APIs. Serves {@code users} users from {@code /users}
+ * (whole or by {@code _page}/{@code _limit}), adds {@code latency} before each response and answers
+ * a fraction {@code errorRate} of user requests with 503. Defaults come from
+ * {@code -Dloadtest.upstream.users}, {@code .latency} and {@code .error-rate}.
+ */
+final class UpstreamStub implements AutoCloseable {
+
+    private final MockWebServer server = new MockWebServer();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<User> users;
+    private final byte[] allUsersJson;
+    private final byte[] loginJson;
+    private volatile Duration latency;
+    private volatile double errorRate;
+
+    UpstreamStub(int userCount, Duration latency, double errorRate) {
+        this.users = new ArrayList<>(userCount);
+        for (long id = 1; id <= userCount; id++) {
+            users.add(new User(id, "User " + id, "user" + id, "user" + id + "@example.com"));
+        }
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.allUsersJson = toJson(users);
+        this.loginJson = toJson(new LoginResponse("load-test-token", "Bearer", 3600L));
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return respond(request);
+            }
+        });
+    }
+
+    static UpstreamStub fromSystemProperties() {
+        return new UpstreamStub(
+                Integer.getInteger("loadtest.upstream.users", 10_000),
+                Duration.parse(System.getProperty("loadtest.upstream.latency", "PT0.02S")),
+                Double.parseDouble(System.getProperty("loadtest.upstream.error-rate", "0")));
+    }
+
+    UpstreamStub start() {
+        try {
+            server.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    String baseUrl() {
+        String url = server.url("/").toString();
+        return url.substring(0, url.length() - 1);
+    }
+
+    int userCount() {
+        return users.size();
+    }
+
+    void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+
+    private MockResponse respond(RecordedRequest request) {
+        String path = request.getRequestUrl().encodedPath();
+        MockResponse response;
+        if (path.startsWith("/auth/")) {
+            response = json(loginJson);
+        } else if (path.equals("/users")) {
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                response = new MockResponse().setResponseCode(503);
+            } else {
+                response = json(usersBody(request));
+            }
+        } else {
+            response = new MockResponse().setResponseCode(404);
+        }
+        return response.setHeadersDelay(latency.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private byte[] usersBody(RecordedRequest request) {
+        // Parameter names are the external.api.paging defaults
+        String page = request.getRequestUrl().queryParameter("_page");
+        if (page == null) {
+            return allUsersJson;
+        }
+        String size = request.getRequestUrl().queryParameter("_limit");
+        int pageSize = size == null ? 100 : Integer.parseInt(size);
+        int from = Math.min(users.size(), (Integer.parseInt(page) - 1) * pageSize);
+        return toJson(users.subList(from, Math.min(users.size(), from + pageSize)));
+    }
+
+    private static MockResponse json(byte[] body) {
+        return new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody(new Buffer().write(body));
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
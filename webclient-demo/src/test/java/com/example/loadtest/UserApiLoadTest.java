@@ -0,0 +1,144 @@
+package com.example.loadtest;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load on the user endpoints: the app on a random port with an in-memory H2 database,
+ * its upstream replaced by {@link UpstreamStub}. Run with {@code mvn -Ploadtest test}; tune with
+ * {@code -Dloadtest.concurrency}, {@code -Dloadtest.seconds} and the {@code loadtest.upstream.*}
+ * properties. Results are written by {@link LoadReport}.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class UserApiLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 64);
+    private static final int FETCH_CONCURRENCY = Integer.getInteger("loadtest.fetch-concurrency", 4);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 5));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.seconds", 20));
+    private static final int IDS_PER_BATCH = 20;
+    private static final int PAGE_SIZE = 100;
+
+    private static final UpstreamStub upstream = UpstreamStub.fromSystemProperties().start();
+    private static boolean seeded;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("external.api.base-url", upstream::baseUrl);
+        registry.add("auth.base-url", upstream::baseUrl);
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.H2Dialect");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("sync.job.enabled", () -> "false");
+        registry.add("logging.level.root", () -> "WARN");
+        registry.add("logging.level.com.example", () -> "WARN");
+    }
+
+    @AfterAll
+    static void stopUpstream() throws IOException {
+        upstream.close();
+    }
+
+    @BeforeEach
+    void seed() throws Exception {
+        if (!seeded) {
+            HttpResponse<Void> response = send(post("/api/users/fetch-and-save"));
+            assertThat(response.statusCode()).isEqualTo(200);
+            seeded = true;
+        }
+    }
+
+    @Test
+    void fetchAndSave() throws Exception {
+        HttpRequest request = post("/api/users/fetch-and-save");
+        measure("fetch-and-save", FETCH_CONCURRENCY, () -> send(request).statusCode() == 200);
+    }
+
+    @Test
+    void getUserById() throws Exception {
+        measure("get-user-by-id", CONCURRENCY, () -> send(get("/api/users/" + randomId())).statusCode() == 200);
+    }
+
+    @Test
+    void getUsersByIds() throws Exception {
+        measure("get-users-by-ids", CONCURRENCY, () -> {
+            String ids = LongStream.generate(UserApiLoadTest::randomId)
+                    .limit(IDS_PER_BATCH)
+                    .mapToObj(Long::toString)
+                    .collect(Collectors.joining(","));
+            return send(get("/api/users?ids=" + ids)).statusCode() == 200;
+        });
+    }
+
+    @Test
+    void getUsersPage() throws Exception {
+        measure("get-users-page", CONCURRENCY, () -> {
+            long afterId = ThreadLocalRandom.current().nextLong(0, upstream.userCount());
+            return send(get("/api/users?afterId=" + afterId + "&limit=" + PAGE_SIZE)).statusCode() == 200;
+        });
+    }
+
+    @Test
+    void getAllUsersNotModified() throws Exception {
+        String eTag = send(get("/api/users")).headers().firstValue("ETag").orElseThrow();
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/users")).header("If-None-Match", eTag).GET().build();
+        measure("get-all-users-not-modified", CONCURRENCY, () -> send(request).statusCode() == 304);
+    }
+
+    private void measure(String scenario, int concurrency, LoadDriver.Request request) throws Exception {
+        LoadResult result = new LoadDriver(scenario, concurrency, WARMUP, DURATION).run(request);
+        LoadReport.write(result);
+        assertThat(result.requests()).isPositive();
+    }
+
+    private HttpResponse<Void> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private HttpRequest post(String path) {
+        return HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, upstream.userCount() + 1);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.repository;
+
+import com.example.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+import java.util.List;
+
+@DataR2dbcTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///reactive-users?options=MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("r2dbc")
+class ReactiveUserRepositoryTest {
+
+    @Autowired
+    private ReactiveUserRepository reactiveUserRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("CREATE TABLE IF NOT EXISTS users (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL, "
+                        + "username VARCHAR(255) NOT NULL UNIQUE, email VARCHAR(255) NOT NULL UNIQUE)")
+                .then()
+                .then(databaseClient.sql("CREATE TABLE IF NOT EXISTS data_versions (name VARCHAR(64) PRIMARY KEY, "
+                        + "version BIGINT NOT NULL)").then())
+                .then(databaseClient.sql("DELETE FROM users").then())
+                .block();
+    }
+
+    @Test
+    void testUpsertAll_InsertsThenUpdates() {
+        // Given
+        List<User> users = Arrays.asList(
+                new User(1L, "John Doe", "johndoe", "john@example.com"),
+                new User(2L, "Jane Smith", "janesmith", "jane@example.com")
+        );
+
+        // When
+        StepVerifier.create(reactiveUserRepository.upsertAll(users))
+                .expectNext(2)
+                .verifyComplete();
+        StepVerifier.create(reactiveUserRepository.upsertAll(List.of(new User(1L, "John Renamed", "johnr", "john@example.com"))))
+                .expectNext(1)
+                .verifyComplete();
+
+        // Then
+        StepVerifier.create(reactiveUserRepository.findById(1L))
+                .expectNextMatches(user -> user.getName().equals("John Renamed") && user.getUsername().equals("johnr"))
+                .verifyComplete();
+        StepVerifier.create(reactiveUserRepository.count())
+                .expectNext(2L)
+                .verifyComplete();
+    }
+
+    @Test
+    void testFindByIdGreaterThan_ReturnsKeysetPage() {
+        // Given
+        reactiveUserRepository.upsertAll(Arrays.asList(
+                new User(1L, "John Doe", "johndoe", "john@example.com"),
+                new User(2L, "Jane Smith", "janesmith", "jane@example.com"),
+                new User(3L, "Bob Brown", "bobbrown", "bob@example.com")
+        )).block();
+
+        // When & Then
+        StepVerifier.create(reactiveUserRepository.findByIdGreaterThanOrderByIdAsc(1L, PageRequest.of(0, 1)))
+                .expectNextMatches(user -> user.getId() == 2L)
+                .verifyComplete();
+        StepVerifier.create(reactiveUserRepository.existsByEmail("bob@example.com"))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void testUpsertAll_RejectsNewUserWithAnotherUsersEmail() {
+        // Given
+        reactiveUserRepository.upsertAll(List.of(new User(1L, "John Doe", "johndoe", "john@example.com"))).block();
+
+        // When & Then
+        StepVerifier.create(reactiveUserRepository.upsertAll(List.of(new User(2L, "Johnny", "johnny", "john@example.com"))))
+                .expectError(DuplicateKeyException.class)
+                .verify();
+        StepVerifier.create(reactiveUserRepository.findById(1L))
+                .expectNextMatches(user -> user.getName().equals("John Doe"))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.repository;
+
+import com.example.config.JpaRepositoryConfig;
+import com.example.entity.SyncLock;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JpaRepositoryConfig.class)
+class SyncLockRepositoryTest {
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    @Autowired
+    private SyncLockRepository syncLockRepository;
+
+    private static final long TEN_MINUTES = Duration.ofMinutes(10).toNanos() / 1_000;
+
+    @Test
+    void testTryAcquire_OnlyOneOwnerWinsUntilLeaseExpires() {
+        // Given
+        syncLockRepository.saveAndFlush(new SyncLock("user-sync", Instant.EPOCH));
+
+        // When
+        int first = syncLockRepository.tryAcquire("user-sync", "node-a", TEN_MINUTES);
+        int second = syncLockRepository.tryAcquire("user-sync", "node-b", TEN_MINUTES);
+        syncLockRepository.tryAcquire("user-sync", "node-a", 0);
+
+        // Then - a zero lease has run out as soon as it is taken
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        assertThat(syncLockRepository.tryAcquire("user-sync", "node-b", TEN_MINUTES)).isEqualTo(1);
+    }
+
+    @Test
+    void testRenew_OnlyByOwnerWhileLeaseLasts() {
+        // Given
+        syncLockRepository.saveAndFlush(new SyncLock("user-sync", Instant.EPOCH));
+        syncLockRepository.tryAcquire("user-sync", "node-a", TEN_MINUTES);
+
+        // When
+        int byOther = syncLockRepository.renew("user-sync", "node-b", TEN_MINUTES);
+        int byOwner = syncLockRepository.renew("user-sync", "node-a", TEN_MINUTES);
+
+        // Then - a lease that has run out is not revived
+        assertThat(byOther).isZero();
+        assertThat(byOwner).isEqualTo(1);
+        syncLockRepository.renew("user-sync", "node-a", 0);
+        assertThat(syncLockRepository.renew("user-sync", "node-a", TEN_MINUTES)).isZero();
+    }
+
+    @Test
+    void testRelease_OnlyByOwner() {
+        // Given
+        syncLockRepository.saveAndFlush(new SyncLock("user-sync", Instant.EPOCH));
+        syncLockRepository.tryAcquire("user-sync", "node-a", TEN_MINUTES);
+
+        // When
+        int byOther = syncLockRepository.release("user-sync", "node-b", 0);
+        int byOwner = syncLockRepository.release("user-sync", "node-a", 0);
+
+        // Then
+        assertThat(byOther).isZero();
+        assertThat(byOwner).isEqualTo(1);
+        assertThat(syncLockRepository.tryAcquire("user-sync", "node-b", TEN_MINUTES)).isEqualTo(1);
+    }
+
+    @Test
+    void testRelease_KeepsLockForHeldAtLeastAfterItWasTaken() {
+        // Given
+        syncLockRepository.saveAndFlush(new SyncLock("user-sync", Instant.EPOCH));
+        syncLockRepository.tryAcquire("user-sync", "node-a", TEN_MINUTES);
+
+        // When
+        syncLockRepository.release("user-sync", "node-a", TEN_MINUTES);
+
+        // Then
+        assertThat(syncLockRepository.tryAcquire("user-sync", "node-b", TEN_MINUTES)).isZero();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.repository;
+
+import com.example.config.JpaRepositoryConfig;
+import com.example.config.PersistenceProperties;
+import com.example.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JpaRepositoryConfig.class, UserJdbcRepository.class, PersistenceProperties.class})
+class UserJdbcRepositoryTest {
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> mysql.getJdbcUrl() + "?rewriteBatchedStatements=true");
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("persistence.batch-size", () -> 2);
+    }
+
+    @Autowired
+    private UserJdbcRepository userJdbcRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void testUpsertAll_InsertsNewUsers() {
+        // Given
+        List<User> users = Arrays.asList(
+                new User(1L, "John Doe", "johndoe", "john@example.com"),
+                new User(2L, "Jane Smith", "janesmith", "jane@example.com"),
+                new User(3L, "Bob Brown", "bobbrown", "bob@example.com")
+        );
+
+        // When
+        int written = userJdbcRepository.upsertAll(users);
+
+        // Then
+        assertThat(written).isEqualTo(3);
+        assertThat(userRepository.count()).isEqualTo(3);
+        assertThat(userRepository.findById(3L)).get()
+                .extracting(User::getUsername)
+                .isEqualTo("bobbrown");
+    }
+
+    @Test
+    void testUpsertAll_BumpsVersion() {
+        // Given
+        long before = userJdbcRepository.currentVersion();
+
+        // When
+        userJdbcRepository.upsertAll(List.of(new User(1L, "John Doe", "johndoe", "john@example.com")));
+        userJdbcRepository.upsertAll(List.of(new User(1L, "John Updated", "johndoe", "john@example.com")));
+
+        // Then
+        assertThat(userJdbcRepository.currentVersion()).isEqualTo(before + 2);
+    }
+
+    @Test
+    void testUpsertAll_UpdatesExistingUsers() {
+        // Given
+        userJdbcRepository.upsertAll(List.of(new User(1L, "John Doe", "johndoe", "john@example.com")));
+
+        // When
+        userJdbcRepository.upsertAll(List.of(new User(1L, "John Updated", "johndoe", "john.new@example.com")));
+
+        // Then
+        assertThat(userRepository.count()).isEqualTo(1);
+        User user = userRepository.findById(1L).orElseThrow();
+        assertThat(user.getName()).isEqualTo("John Updated");
+        assertThat(user.getEmail()).isEqualTo("john.new@example.com");
+    }
+
+    @Test
+    void testUpsertAll_RejectsNewUserWithAnotherUsersUsername() {
+        // Given
+        userJdbcRepository.upsertAll(List.of(new User(1L, "John Doe", "johndoe", "john@example.com")));
+
+        // When & Then - the unique username key must not overwrite user 1
+        assertThatThrownBy(() -> userJdbcRepository.upsertAll(
+                List.of(new User(2L, "Johnny", "johndoe", "johnny@example.com"))))
+                .isInstanceOf(DuplicateKeyException.class);
+        assertThat(userRepository.findById(1L)).get()
+                .extracting(User::getName)
+                .isEqualTo("John Doe");
+        assertThat(userRepository.existsById(2L)).isFalse();
+    }
+
+    @Test
+    void testUpsertAll_RejectsUserWithoutId() {
+        assertThatThrownBy(() -> userJdbcRepository.upsertAll(
+                List.of(new User(null, "John Doe", "johndoe", "john@example.com"))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testFindAllByIds_ReturnsStoredUsersAcrossBatches() {
+        // Given
+        userJdbcRepository.upsertAll(List.of(
+                new User(1L, "John Doe", "johndoe", "john@example.com"),
+                new User(2L, "Jane Smith", "janesmith", "jane@example.com"),
+                new User(3L, "Bob Brown", "bobbrown", "bob@example.com")));
+
+        // When
+        List<User> found = userJdbcRepository.findAllByIds(List.of(3L, 1L, 4L));
+
+        // Then
+        assertThat(found).extracting(User::getId).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(userJdbcRepository.count()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.repository;
+
+import com.example.config.JpaRepositoryConfig;
+import com.example.config.PersistenceProperties;
+import com.example.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Testcontainers
+@ActiveProfiles("l2cache")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JpaRepositoryConfig.class, UserJdbcRepository.class, PersistenceProperties.class})
+class UserSecondLevelCacheTest {
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserJdbcRepository userJdbcRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testFindById_SecondLoadIsServedFromCache() {
+        // Given
+        userJdbcRepository.upsertAll(List.of(new User(1L, "John Doe", "johndoe", "john@example.com")));
+        userRepository.findById(1L);
+        entityManager.clear();
+
+        // When
+        User user = userRepository.findById(1L).orElseThrow();
+
+        // Then
+        assertThat(user.getName()).isEqualTo("John Doe");
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testFindByNaturalUsername_UsesNaturalIdCache() {
+        // Given
+        userJdbcRepository.upsertAll(List.of(new User(1L, "John Doe", "johndoe", "john@example.com")));
+        userRepository.findByNaturalUsername("johndoe");
+        entityManager.clear();
+
+        // When
+        User user = userRepository.findByNaturalUsername("johndoe").orElseThrow();
+
+        // Then
+        assertThat(user.getId()).isEqualTo(1L);
+        assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testUpsertAll_EvictsCachedUsers() {
+        // Given
+        userJdbcRepository.upsertAll(List.of(new User(1L, "John Doe", "johndoe", "john@example.com")));
+        userRepository.findById(1L);
+        assertThat(userRepository.existsByUsername("johnr")).isFalse();
+        entityManager.clear();
+
+        // When
+        userJdbcRepository.upsertAll(List.of(new User(1L, "John Renamed", "johnr", "john@example.com")));
+
+        // Then
+        assertThat(userRepository.findById(1L)).get()
+                .extracting(User::getName)
+                .isEqualTo("John Renamed");
+        assertThat(userRepository.existsByUsername("johnr")).isTrue();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(5);
+
+    private final AdaptiveConcurrencyLimiter limiter =
+            new AdaptiveConcurrencyLimiter(2, 1, 10, 0.5, TimeUnit.SECONDS.toNanos(1));
+
+    @Test
+    void rejectsCallsOverTheLimit() {
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void growsAdditivelyOnFastSuccess() {
+        // Given
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        // When
+        limiter.release(false, FAST);
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void shrinksMultiplicativelyOnSlowOrFailedCalls() {
+        // Given
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        // When
+        limiter.release(false, SLOW);
+        limiter.release(true, FAST);
+
+        // Then - 2 * 0.5 * 0.5, floored at the minimum of 1
+        assertThat(limiter.getLimit()).isEqualTo(1);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new CircuitBreaker(50, 4,
+                TimeUnit.SECONDS.toNanos(10), TimeUnit.SECONDS.toNanos(30), 2, now::get);
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        // Given
+        recordCall(true);
+        recordCall(false);
+        recordCall(true);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        // When
+        recordCall(false);
+
+        // Then - 2 failures out of 4 calls is 50%
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    void closesAfterSuccessfulTrialCalls() {
+        // Given
+        openBreaker();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        // When - two trial calls are allowed, a third is not
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void reopensWhenTrialCallFails() {
+        // Given
+        openBreaker();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+
+        // When
+        circuitBreaker.onFailure();
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 4; i++) {
+            recordCall(true);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private void recordCall(boolean failed) {
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        if (failed) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResilienceFilterTest {
+
+    private static final ClientRequest REQUEST =
+            ClientRequest.create(HttpMethod.GET, URI.create("http://upstream.test/users")).build();
+
+    private final AtomicLong now = new AtomicLong();
+    private CircuitBreaker circuitBreaker;
+    private AdaptiveConcurrencyLimiter limiter;
+    private ResilienceFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new CircuitBreaker(50, 1,
+                TimeUnit.SECONDS.toNanos(10), TimeUnit.SECONDS.toNanos(30), 1, now::get);
+        limiter = new AdaptiveConcurrencyLimiter(10, 1, 20, 0.5, TimeUnit.SECONDS.toNanos(10));
+        filter = new ResilienceFilter(circuitBreaker, limiter, new RetryBudget(0.2, 10));
+    }
+
+    @Test
+    void holdsLimiterSlotUntilBodyIsRead() {
+        // Given - a body that arrives after the headers
+        Sinks.Many<DataBuffer> body = Sinks.many().unicast().onBackpressureBuffer();
+        ClientResponse upstream = ClientResponse.create(HttpStatus.OK).body(body.asFlux()).build();
+
+        // When
+        ClientResponse response = filter.filter(REQUEST, request -> Mono.just(upstream)).block();
+
+        // Then
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        Mono<String> read = response.bodyToMono(String.class).cache();
+        read.subscribe();
+        body.tryEmitNext(buffer("[]"));
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        body.tryEmitComplete();
+        assertThat(read.block()).isEqualTo("[]");
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void slowBodyDoesNotShrinkTheLimit() {
+        // Given - the threshold is shorter than the time the body takes to arrive
+        limiter = new AdaptiveConcurrencyLimiter(10, 1, 20, 0.5, TimeUnit.MILLISECONDS.toNanos(20));
+        filter = new ResilienceFilter(circuitBreaker, limiter, new RetryBudget(0.2, 10));
+        Sinks.Many<DataBuffer> body = Sinks.many().unicast().onBackpressureBuffer();
+        ClientResponse upstream = ClientResponse.create(HttpStatus.OK).body(body.asFlux()).build();
+        ClientResponse response = filter.filter(REQUEST, request -> Mono.just(upstream)).block();
+        Mono<String> read = response.bodyToMono(String.class).cache();
+        read.subscribe();
+
+        // When
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        body.tryEmitNext(buffer("[]"));
+        body.tryEmitComplete();
+
+        // Then
+        assertThat(read.block()).isEqualTo("[]");
+        assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(10);
+    }
+
+    @Test
+    void countsServerErrorAsFailureOnceBodyIsReleased() {
+        // Given
+        ClientResponse upstream = ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Flux.just(buffer("down")))
+                .build();
+
+        // When
+        ClientResponse response = filter.filter(REQUEST, request -> Mono.just(upstream)).block();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        response.releaseBody().block();
+
+        // Then
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.getLimit()).isEqualTo(5);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void cancelledBodyReleasesSlotWithoutFeedingTheLimit() {
+        // Given
+        Sinks.Many<DataBuffer> body = Sinks.many().unicast().onBackpressureBuffer();
+        ClientResponse upstream = ClientResponse.create(HttpStatus.OK).body(body.asFlux()).build();
+        ClientResponse response = filter.filter(REQUEST, request -> Mono.just(upstream)).block();
+
+        // When
+        response.bodyToFlux(DataBuffer.class).subscribe().dispose();
+
+        // Then
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.getLimit()).isEqualTo(10);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void transportErrorCountsAsFailure() {
+        // When & Then
+        StepVerifier.create(filter.filter(REQUEST, request -> Mono.error(new IllegalStateException("connection reset"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void openBreakerRejectsWithoutCallingUpstream() {
+        // Given
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onFailure();
+        AtomicInteger exchanges = new AtomicInteger();
+
+        // When & Then
+        StepVerifier.create(filter.filter(REQUEST, request -> {
+                    exchanges.incrementAndGet();
+                    return Mono.empty();
+                }))
+                .expectError(CallNotPermittedException.class)
+                .verify();
+        assertThat(exchanges).hasValue(0);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    private static DataBuffer buffer(String value) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
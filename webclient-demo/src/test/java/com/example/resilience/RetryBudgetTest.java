@@ -0,0 +1,81 @@
+package com.example.resilience;
+
+import com.example.config.RetryProperties;
+import com.example.config.WebClientConfig;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryBudgetTest {
+
+    @Test
+    void refusesRetriesOnceSpent() {
+        // Given
+        RetryBudget budget = new RetryBudget(0.5, 1);
+        assertThat(budget.tryAcquireRetry()).isTrue();
+        assertThat(budget.tryAcquireRetry()).isFalse();
+
+        // When - two requests earn one retry
+        budget.onRequest();
+        budget.onRequest();
+
+        // Then
+        assertThat(budget.tryAcquireRetry()).isTrue();
+    }
+
+    @Test
+    void neverHoldsMoreThanCapacity() {
+        // Given
+        RetryBudget budget = new RetryBudget(1.0, 2);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            budget.onRequest();
+        }
+
+        // Then
+        assertThat(budget.getAvailableRetries()).isEqualTo(2.0);
+    }
+
+    @Test
+    void retrySpecSpendsOnlyOnRetriesThatHappen() {
+        // Given
+        RetryProperties properties = new RetryProperties();
+        properties.setMaxAttempts(2);
+        properties.setDelay(Duration.ofMillis(1));
+        RetryBudget budget = new RetryBudget(0.0, 5);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        StepVerifier.create(Mono.error(new IllegalStateException("down"))
+                        .doOnSubscribe(subscription -> attempts.incrementAndGet())
+                        .retryWhen(new WebClientConfig().retryConfig(properties, budget)))
+                .expectError()
+                .verify(Duration.ofSeconds(5));
+
+        // Then - two retries, and the exhausted third failure spent nothing
+        assertThat(attempts).hasValue(3);
+        assertThat(budget.getAvailableRetries()).isEqualTo(3.0);
+    }
+
+    @Test
+    void retrySpecFailsWithLastErrorOnceBudgetIsSpent() {
+        // Given
+        RetryProperties properties = new RetryProperties();
+        properties.setMaxAttempts(3);
+        properties.setDelay(Duration.ofMillis(1));
+        RetryBudget budget = new RetryBudget(0.0, 1);
+
+        // When & Then
+        StepVerifier.create(Mono.error(new IllegalStateException("down"))
+                        .retryWhen(new WebClientConfig().retryConfig(properties, budget)))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(5));
+        assertThat(budget.getAvailableRetries()).isZero();
+    }
+}
@@ -2,6 +2,7 @@ package com.example.service;
 
 import com.example.config.RetryProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.netty.channel.ChannelOption;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
@@ -15,15 +16,23 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.netty.http.client.HttpClient;
 import reactor.test.StepVerifier;
 
 import java.io.IOException;
+import java.time.Clock;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class AuthApiClientServiceTest {
@@ -31,6 +40,10 @@ class AuthApiClientServiceTest {
     private MockWebServer mockWebServer;
     private AuthApiClientService authApiClientService;
     private ObjectMapper objectMapper;
+    private WebClient webClient;
+    private RetryProperties retryProperties;
+    // Services whose background renewal must not outlive the test
+    private final List<AuthApiClientService> services = new ArrayList<>();
 
     @BeforeEach
     void setUp() throws IOException {
@@ -41,25 +54,31 @@ class AuthApiClientServiceTest {
 
         String baseUrl = String.format("http://localhost:%s", mockWebServer.getPort());
 
-        WebClient webClient = WebClient.builder()
+        webClient = WebClient.builder()
                 .clientConnector(new ReactorClientHttpConnector(
                         HttpClient.create()
                                 .responseTimeout(Duration.ofSeconds(5))
                                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000)
                 ))
                 .build();
-        RetryProperties retryProperties = new RetryProperties();
+        retryProperties = new RetryProperties();
         retryProperties.setMaxAttempts(3);
         retryProperties.setDelay(Duration.ofMillis(5));
-        authApiClientService = new AuthApiClientService(
+        authApiClientService = track(new AuthApiClientService(
                 webClient.mutate(),
                 baseUrl,
                 "/auth/login",
-                retryProperties);
+                "/auth/refresh",
+                null,
+                null,
+                Duration.ofMinutes(1),
+                retryProperties,
+                new SimpleMeterRegistry()));
     }
 
     @AfterEach
     void tearDown() throws IOException {
+        services.forEach(AuthApiClientService::shutdown);
         mockWebServer.shutdown();
     }
 
@@ -268,4 +287,147 @@ class AuthApiClientServiceTest {
         // client
         // which is more of an integration test
     }
-}
\ No newline at end of file
+
+    @Test
+    void createAuthenticatedWebClient_ShouldResolveTokenPerRequest() throws Exception {
+        // Given
+        mockWebServer.enqueue(tokenResponse("first_token", "refresh", 3600L));
+        StepVerifier.create(authApiClientService.login("user", "pass"))
+                .expectNext("first_token")
+                .verifyComplete();
+        WebClient authenticatedClient = authApiClientService.createAuthenticatedWebClient();
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+        mockWebServer.enqueue(tokenResponse("second_token", "refresh", 3600L));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+
+        // When - the same client instance is used before and after a new login
+        authenticatedClient.get().uri("/protected").retrieve().toBodilessEntity().block(Duration.ofSeconds(5));
+        authApiClientService.login("user", "pass").block(Duration.ofSeconds(5));
+        authenticatedClient.get().uri("/protected").retrieve().toBodilessEntity().block(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(authApiClientService.createAuthenticatedWebClient()).isSameAs(authenticatedClient);
+        mockWebServer.takeRequest();
+        assertThat(mockWebServer.takeRequest().getHeader(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer first_token");
+        mockWebServer.takeRequest();
+        assertThat(mockWebServer.takeRequest().getHeader(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer second_token");
+    }
+
+    @Test
+    void getValidAccessToken_ConcurrentCallers_ShouldShareSingleLogin() throws Exception {
+        // Given - a slow login endpoint and a service that can log in on its own
+        AuthApiClientService service = serviceWithCredentials();
+        mockWebServer.enqueue(tokenResponse("shared_token", "refresh", 3600L)
+                .setBodyDelay(200, TimeUnit.MILLISECONDS));
+
+        // When
+        Mono<List<String>> tokens = Flux.range(0, 10)
+                .flatMap(i -> service.getValidAccessToken())
+                .collectList();
+
+        // Then
+        StepVerifier.create(tokens)
+                .assertNext(values -> assertThat(values).hasSize(10).containsOnly("shared_token"))
+                .verifyComplete();
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+        assertThat(mockWebServer.takeRequest().getPath()).isEqualTo("/auth/login");
+    }
+
+    @Test
+    void getValidAccessToken_WhenExpired_ShouldUseRefreshToken() throws Exception {
+        // Given - a token that is already inside the 5 minute expiry buffer
+        AuthApiClientService service = serviceWithCredentials();
+        mockWebServer.enqueue(tokenResponse("old_token", "refresh_123", 60L));
+        mockWebServer.enqueue(tokenResponse("new_token", null, 3600L));
+
+        StepVerifier.create(service.login("user", "pass"))
+                .expectNext("old_token")
+                .verifyComplete();
+        assertFalse(service.isAuthenticated());
+
+        // When & Then
+        StepVerifier.create(service.getValidAccessToken())
+                .expectNext("new_token")
+                .verifyComplete();
+
+        mockWebServer.takeRequest();
+        RecordedRequest refreshRequest = mockWebServer.takeRequest();
+        assertThat(refreshRequest.getPath()).isEqualTo("/auth/refresh");
+        AuthApiClientService.RefreshRequest body = objectMapper.readValue(
+                refreshRequest.getBody().readUtf8(),
+                AuthApiClientService.RefreshRequest.class);
+        assertThat(body.getRefreshToken()).isEqualTo("refresh_123");
+        assertEquals("new_token", service.getAccessToken());
+    }
+
+    @Test
+    void getValidAccessToken_WithoutCredentials_ShouldFail() {
+        // When & Then
+        StepVerifier.create(authApiClientService.getValidAccessToken())
+                .expectError(AuthenticationException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void isAuthenticated_ShouldFollowInjectedClock() throws Exception {
+        // Given - a clock that only moves when the test says so
+        AtomicLong now = new AtomicLong(1_000_000L);
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenAnswer(invocation -> now.get());
+        AuthApiClientService service = track(new AuthApiClientService(
+                webClient.mutate(),
+                String.format("http://localhost:%s", mockWebServer.getPort()),
+                "/auth/login",
+                "/auth/refresh",
+                null,
+                null,
+                Duration.ofMinutes(1),
+                retryProperties,
+                clock,
+                new SimpleMeterRegistry()));
+        mockWebServer.enqueue(tokenResponse("token", "refresh", 3600L));
+        StepVerifier.create(service.login("user", "pass"))
+                .expectNext("token")
+                .verifyComplete();
+
+        // When & Then - valid until 5 minutes before the 1 hour expiry
+        now.addAndGet(Duration.ofMinutes(55).toMillis());
+        assertTrue(service.isAuthenticated());
+        assertEquals("token", service.getAccessToken());
+
+        now.incrementAndGet();
+        assertFalse(service.isAuthenticated());
+        assertThrows(AuthenticationException.class, service::getAccessToken);
+    }
+
+    private AuthApiClientService serviceWithCredentials() {
+        return track(new AuthApiClientService(
+                webClient.mutate(),
+                String.format("http://localhost:%s", mockWebServer.getPort()),
+                "/auth/login",
+                "/auth/refresh",
+                "user",
+                "pass",
+                Duration.ofMinutes(1),
+                retryProperties,
+                Clock.systemUTC(),
+                new SimpleMeterRegistry()));
+    }
+
+    private AuthApiClientService track(AuthApiClientService service) {
+        services.add(service);
+        return service;
+    }
+
+    private MockResponse tokenResponse(String accessToken, String refreshToken, long expiresIn) throws Exception {
+        AuthApiClientService.LoginResponse loginResponse = new AuthApiClientService.LoginResponse();
+        loginResponse.setAccessToken(accessToken);
+        loginResponse.setRefreshToken(refreshToken);
+        loginResponse.setTokenType("Bearer");
+        loginResponse.setExpiresIn(expiresIn);
+        return new MockResponse()
+                .setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(objectMapper.writeValueAsString(loginResponse));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+
+    @Test
+    void testMightContain_NoFalseNegatives() {
+        // Given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i);
+        }
+
+        // Then
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("user" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void testMightContain_FalsePositiveRateNearTarget() {
+        // Given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("absent" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.expectedFalsePositiveProbability()).isBetween(0.005, 0.015);
+    }
+
+    @Test
+    void testSizing() {
+        // Given - about 9.6 bits and 7 hash functions per value at 1%
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+
+        // Then
+        assertThat(filter.bitSize()).isBetween(958_000L, 960_000L);
+        assertThat(filter.hashFunctions()).isEqualTo(7);
+        assertThat(filter.memoryBytes()).isEqualTo(filter.bitSize() / 8);
+    }
+
+    @Test
+    void testApproximateElementCount() {
+        // Given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+        // When
+        for (int i = 0; i < 5_000; i++) {
+            filter.put("user" + i);
+        }
+
+        // Then
+        assertThat(filter.approximateElementCount()).isBetween(4_800L, 5_200L);
+    }
+
+    @Test
+    void testRejectsInvalidParameters() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(100, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.service;
+
+import com.example.config.SyncJobProperties;
+import com.example.dto.SyncJob;
+import com.example.dto.SyncReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyncJobServiceTest {
+
+    @Mock
+    private UserApiClientService userApiClientService;
+
+    @Mock
+    private SyncLockService syncLockService;
+
+    @Spy
+    private SyncJobProperties properties = new SyncJobProperties();
+
+    @Spy
+    private Scheduler blockingIoScheduler = Schedulers.immediate();
+
+    @InjectMocks
+    private SyncJobService syncJobService;
+
+    private UserSyncCoordinator syncCoordinator;
+
+    @BeforeEach
+    void setUp() {
+        syncCoordinator = new UserSyncCoordinator(userApiClientService, syncLockService, properties, blockingIoScheduler);
+        ReflectionTestUtils.setField(syncJobService, "syncCoordinator", syncCoordinator);
+    }
+
+    @Test
+    void testSubmit_RunsSyncWhenLockAcquired() {
+        // Given
+        properties.setNodeId("node-a");
+        when(syncLockService.tryAcquire(UserSyncCoordinator.LOCK_NAME, "node-a", properties.getLockLease())).thenReturn(true);
+        when(userApiClientService.syncUsersIncrementally(any())).thenReturn(Mono.just(new SyncReport(2, 1, 7, 0)));
+
+        // When
+        SyncJob job = syncJobService.submit(SyncJob.Trigger.SCHEDULED);
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo(SyncJob.Status.SUCCEEDED);
+        assertThat(job.getReport().getInserted()).isEqualTo(2);
+        assertThat(job.getFinishedAt()).isNotNull();
+        assertThat(syncJobService.getJob(job.getId())).containsSame(job);
+        // Scheduled runs keep the lock for lock-at-least-for after taking it
+        verify(syncLockService).release(UserSyncCoordinator.LOCK_NAME, "node-a", properties.getLockAtLeastFor());
+    }
+
+    @Test
+    void testSubmit_SkipsWhenAnotherNodeHoldsLock() {
+        // Given
+        when(syncLockService.tryAcquire(eq(UserSyncCoordinator.LOCK_NAME), any(), any(Duration.class))).thenReturn(false);
+
+        // When
+        SyncJob job = syncJobService.submit(SyncJob.Trigger.SCHEDULED);
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo(SyncJob.Status.SKIPPED);
+        verify(userApiClientService, never()).syncUsersIncrementally(any());
+        verify(syncLockService, never()).release(any(), any(), any());
+    }
+
+    @Test
+    void testSubmit_ReturnsRunningJobInsteadOfStartingAnother() {
+        // Given
+        when(syncLockService.tryAcquire(eq(UserSyncCoordinator.LOCK_NAME), any(), any(Duration.class))).thenReturn(true);
+        when(userApiClientService.syncUsersIncrementally(any())).thenReturn(Mono.never());
+
+        // When
+        SyncJob first = syncJobService.submit(SyncJob.Trigger.SCHEDULED);
+        SyncJob second = syncJobService.submit(SyncJob.Trigger.MANUAL);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(first.getStatus()).isEqualTo(SyncJob.Status.RUNNING);
+        verify(userApiClientService, times(1)).syncUsersIncrementally(any());
+    }
+
+    @Test
+    void testSubmit_JoiningASyncStartedByRequestRunsUnderTheLock() {
+        // Given POST /sync is running
+        Sinks.One<SyncReport> upstream = Sinks.one();
+        when(syncLockService.tryAcquire(eq(UserSyncCoordinator.LOCK_NAME), any(), any(Duration.class))).thenReturn(true);
+        when(userApiClientService.syncUsersIncrementally(any())).thenReturn(upstream.asMono());
+        syncCoordinator.syncUsersIncrementally().subscribe();
+
+        // When
+        SyncJob job = syncJobService.submit(SyncJob.Trigger.SCHEDULED);
+        upstream.tryEmitValue(new SyncReport(1, 0, 0, 0));
+
+        // Then the job shared the request's run, which took and released the lock
+        assertThat(job.getStatus()).isEqualTo(SyncJob.Status.SUCCEEDED);
+        verify(userApiClientService, times(1)).syncUsersIncrementally(any());
+        verify(syncLockService, times(1)).tryAcquire(eq(UserSyncCoordinator.LOCK_NAME), any(), any(Duration.class));
+        verify(syncLockService).release(eq(UserSyncCoordinator.LOCK_NAME), any(), eq(Duration.ZERO));
+    }
+
+    @Test
+    void testSubmit_RecordsFailureAndReleasesLock() {
+        // Given
+        when(syncLockService.tryAcquire(eq(UserSyncCoordinator.LOCK_NAME), any(), any(Duration.class))).thenReturn(true);
+        when(userApiClientService.syncUsersIncrementally(any()))
+                .thenReturn(Mono.error(new IllegalStateException("upstream down")));
+
+        // When
+        SyncJob job = syncJobService.submit(SyncJob.Trigger.MANUAL);
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo(SyncJob.Status.FAILED);
+        assertThat(job.getMessage()).isEqualTo("upstream down");
+        verify(syncLockService).release(eq(UserSyncCoordinator.LOCK_NAME), any(), eq(Duration.ZERO));
+
+        // And a new job can start afterwards
+        when(userApiClientService.syncUsersIncrementally(any())).thenReturn(Mono.just(new SyncReport()));
+        assertThat(syncJobService.submit(SyncJob.Trigger.MANUAL).getStatus()).isEqualTo(SyncJob.Status.SUCCEEDED);
+    }
+
+    @Test
+    void testSubmit_SkipsWhenSyncQueueIsFull() {
+        // Given a fetch-and-save is running and nothing may queue behind it
+        properties.setQueueCapacity(0);
+        when(userApiClientService.fetchAndSaveUsers()).thenReturn(Mono.never());
+        syncCoordinator.fetchAndSaveUsers().subscribe();
+
+        // When
+        SyncJob job = syncJobService.submit(SyncJob.Trigger.SCHEDULED);
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo(SyncJob.Status.SKIPPED);
+        assertThat(job.getMessage()).contains("queue is full");
+        verify(syncLockService, never()).tryAcquire(any(), any(), any());
+    }
+}
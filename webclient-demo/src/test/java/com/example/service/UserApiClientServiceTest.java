@@ -1,20 +1,39 @@
 package com.example.service;
 
+import com.example.config.BatchLookupProperties;
+import com.example.config.HttpCacheProperties;
+import com.example.config.IngestionProperties;
+import com.example.config.PersistenceProperties;
+import com.example.config.UpstreamPagingProperties;
+import com.example.config.UserCacheProperties;
 import com.example.entity.User;
+import com.example.repository.UserJdbcRepository;
 import com.example.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
+import reactor.util.retry.Retry;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -40,7 +59,48 @@ class UserApiClientServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private AuthApiClientService authService;
+    private UserJdbcRepository userJdbcRepository;
+
+    @Mock
+    private UserFingerprintIndex fingerprintIndex;
+
+    @Mock
+    private UserExistenceFilter existenceFilter;
+
+    @Mock
+    private UserBatchLoader batchLoader;
+
+    @Spy
+    private BatchLookupProperties batchLookupProperties = new BatchLookupProperties();
+
+    @Mock
+    private UserResponseCache responseCache;
+
+    @Spy
+    private HttpCacheProperties httpCacheProperties = new HttpCacheProperties();
+
+    @Mock
+    private UserSnapshotStore snapshotStore;
+
+    @Spy
+    private IngestionProperties ingestionProperties = new IngestionProperties();
+
+    @Spy
+    private Scheduler blockingIoScheduler = Schedulers.immediate();
+
+    @Spy
+    private UserCache userCache = new UserCache(new UserCacheProperties());
+
+    @Spy
+    private PersistenceProperties persistenceProperties = new PersistenceProperties();
+
+    @Spy
+    private UpstreamPagingProperties pagingProperties = new UpstreamPagingProperties();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private UserSyncMetrics syncMetrics = new UserSyncMetrics(meterRegistry);
 
     @InjectMocks
     private UserApiClientService userApiClientService;
@@ -49,6 +109,8 @@ class UserApiClientServiceTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(userApiClientService, "retryConfig", Retry.backoff(2, Duration.ofMillis(1)));
+        lenient().when(snapshotStore.refresh()).thenReturn(Mono.empty());
         mockUsers = Arrays.asList(
                 new User(1L, "John Doe", "johndoe", "john@example.com"),
                 new User(2L, "Jane Smith", "janesmith", "jane@example.com")
@@ -58,7 +120,29 @@ class UserApiClientServiceTest {
     @Test
     void testFetchUsersFromApi_Success() {
         // Given
-        when(authService.getAccessToken()).thenReturn("test-access-token");
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri("/users")).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToFlux(User.class)).thenReturn(Flux.fromIterable(mockUsers));
+
+        // When & Then - the bearer token is added by the WebClient filter, not per call
+        StepVerifier.create(userApiClientService.fetchUsersFromApi())
+                .expectNext(mockUsers.get(0))
+                .expectNext(mockUsers.get(1))
+                .verifyComplete();
+
+        verify(webClient).get();
+        verify(requestHeadersUriSpec).uri("/users");
+        verify(requestHeadersUriSpec, never()).headers(any());
+        verify(requestHeadersUriSpec).retrieve();
+        verify(responseSpec).bodyToFlux(User.class);
+        assertThat(meterRegistry.counter("users.fetched").count()).isEqualTo(2);
+        assertThat(meterRegistry.timer("users.fetch", "outcome", "success").count()).isEqualTo(1);
+    }
+
+    @Test
+    void testFetchUsersFromApi_WithExplicitToken() {
+        // Given
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
         when(requestHeadersUriSpec.uri("/users")).thenReturn(requestHeadersUriSpec);
         when(requestHeadersUriSpec.headers(any())).thenReturn(requestHeadersSpec);
@@ -66,12 +150,11 @@ class UserApiClientServiceTest {
         when(responseSpec.bodyToFlux(User.class)).thenReturn(Flux.fromIterable(mockUsers));
 
         // When & Then
-        StepVerifier.create(userApiClientService.fetchUsersFromApi())
+        StepVerifier.create(userApiClientService.fetchUsersFromApi("test-access-token"))
                 .expectNext(mockUsers.get(0))
                 .expectNext(mockUsers.get(1))
                 .verifyComplete();
 
-        verify(authService).getAccessToken();
         verify(webClient).get();
         verify(requestHeadersUriSpec).uri("/users");
         verify(requestHeadersUriSpec).headers(any());
@@ -82,7 +165,7 @@ class UserApiClientServiceTest {
     @Test
     void testSaveUsers_Success() {
         // Given
-        when(userRepository.saveAll(anyList())).thenReturn(mockUsers);
+        when(userJdbcRepository.upsertAll(anyList())).thenReturn(2);
 
         // When & Then
         StepVerifier.create(userApiClientService.saveUsers(mockUsers))
@@ -93,7 +176,39 @@ class UserApiClientServiceTest {
                 })
                 .verifyComplete();
 
-        verify(userRepository).saveAll(mockUsers);
+        verify(userJdbcRepository).upsertAll(mockUsers);
+        verify(userRepository, never()).saveAll(anyList());
+        assertThat(meterRegistry.timer("users.batch.write").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("users.written").count()).isEqualTo(2);
+    }
+
+    @Test
+    void testIngestUsers_WritesInChunks() {
+        // Given
+        List<User> feed = Arrays.asList(
+                new User(1L, "John Doe", "johndoe", "john@example.com"),
+                new User(2L, "Jane Smith", "janesmith", "jane@example.com"),
+                new User(3L, "Bob Brown", "bobbrown", "bob@example.com")
+        );
+        ingestionProperties.setChunkSize(2);
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri("/users")).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToFlux(User.class)).thenReturn(Flux.fromIterable(feed));
+        when(userJdbcRepository.upsertAll(anyList())).thenAnswer(invocation -> invocation.<List<User>>getArgument(0).size());
+
+        // When & Then
+        StepVerifier.create(userApiClientService.ingestUsers())
+                .expectNextMatches(progress -> progress.getChunk() == 1
+                        && progress.getChunkSize() == 2
+                        && progress.getTotalIngested() == 2)
+                .expectNextMatches(progress -> progress.getChunk() == 2
+                        && progress.getChunkSize() == 1
+                        && progress.getTotalIngested() == 3)
+                .verifyComplete();
+
+        verify(userJdbcRepository).upsertAll(feed.subList(0, 2));
+        verify(userJdbcRepository).upsertAll(feed.subList(2, 3));
     }
 
     @Test
@@ -137,4 +252,275 @@ class UserApiClientServiceTest {
         assertThat(result).isNull();
         verify(userRepository).findById(999L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetUserById_SecondLookupIsServedFromCache() {
+        // Given
+        when(userRepository.findById(1L)).thenReturn(Optional.of(mockUsers.get(0)));
+
+        // When
+        userApiClientService.getUserById(1L);
+        User result = userApiClientService.getUserById(1L);
+
+        // Then
+        assertThat(result.getName()).isEqualTo("John Doe");
+        verify(userRepository, times(1)).findById(1L);
+        assertThat(userCache.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testReads_ServedFromSnapshotWithoutRepository() {
+        // Given
+        when(snapshotStore.current()).thenReturn(UserSnapshot.of(mockUsers));
+
+        // When & Then
+        assertThat(userApiClientService.getUserById(2L).getUsername()).isEqualTo("janesmith");
+        assertThat(userApiClientService.getUserById(3L)).isNull();
+        assertThat(userApiClientService.getUsersPage(1L, 10)).extracting(User::getId).containsExactly(2L);
+        assertThat(userApiClientService.getAllUsers()).hasSize(2);
+        StepVerifier.create(userApiClientService.loadUserById(1L).map(User::getName))
+                .expectNext("John Doe")
+                .verifyComplete();
+        verifyNoInteractions(userRepository, batchLoader);
+    }
+
+    @Test
+    void testSaveUsers_InvalidatesResponseCache() {
+        // Given
+        when(userJdbcRepository.upsertAll(anyList())).thenReturn(2);
+
+        // When
+        userApiClientService.saveUsers(mockUsers).block();
+
+        // Then
+        verify(responseCache).invalidate();
+    }
+
+    @Test
+    void testGetAllUsersSerialized_NullUnlessPrecompressed() {
+        // When & Then
+        assertThat(userApiClientService.getAllUsersSerialized()).isNull();
+        verifyNoInteractions(responseCache);
+    }
+
+    @Test
+    void testGetUsersByIds_LoadsMissesOnceAndKeepsRequestOrder() {
+        // Given
+        userCache.put(mockUsers.get(0));
+        when(batchLoader.load(2L)).thenReturn(Mono.just(mockUsers.get(1)));
+        when(batchLoader.load(3L)).thenReturn(Mono.empty());
+
+        // When
+        List<User> result = userApiClientService.getUsersByIds(List.of(2L, 1L, 3L, 2L)).block();
+
+        // Then
+        assertThat(result).extracting(User::getId).containsExactly(2L, 1L);
+        verify(batchLoader, never()).load(1L);
+        verify(batchLoader, times(1)).load(2L);
+    }
+
+    @Test
+    void testGetUsersByIds_RejectsTooManyIds() {
+        // Given
+        batchLookupProperties.setMaxIds(2);
+
+        // When & Then
+        StepVerifier.create(userApiClientService.getUsersByIds(List.of(1L, 2L, 3L)))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        verifyNoInteractions(batchLoader);
+    }
+
+    @Test
+    void testGetUserByUsername_UsesEntryLoadedById() {
+        // Given
+        when(userRepository.findById(1L)).thenReturn(Optional.of(mockUsers.get(0)));
+        userApiClientService.getUserById(1L);
+
+        // When
+        User byUsername = userApiClientService.getUserByUsername("johndoe");
+        User byEmail = userApiClientService.getUserByEmail("john@example.com");
+
+        // Then
+        assertThat(byUsername).isSameAs(byEmail);
+        verify(userRepository, never()).findByNaturalUsername(any());
+        verify(userRepository, never()).findByEmail(any());
+    }
+
+    @Test
+    void testSaveUsers_RefreshesCachedUsers() {
+        // Given
+        when(userRepository.findById(1L)).thenReturn(Optional.of(mockUsers.get(0)));
+        userApiClientService.getUserById(1L);
+        User renamed = new User(1L, "John Renamed", "johnr", "john@example.com");
+        when(userJdbcRepository.upsertAll(anyList())).thenReturn(1);
+
+        // When
+        userApiClientService.saveUsers(List.of(renamed)).block();
+
+        // Then
+        assertThat(userApiClientService.getUserById(1L).getName()).isEqualTo("John Renamed");
+        assertThat(userApiClientService.getUserByUsername("johnr")).isSameAs(renamed);
+        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, never()).findByNaturalUsername(any());
+    }
+
+    @Test
+    void testSaveUsers_DoesNotCacheUsersThatWereNotCached() {
+        // Given
+        when(userJdbcRepository.upsertAll(anyList())).thenReturn(2);
+
+        // When
+        userApiClientService.saveUsers(mockUsers).block();
+
+        // Then
+        assertThat(userCache.size()).isZero();
+        assertThat(userCache.getIfPresent(1L)).isNull();
+    }
+
+    @Test
+    void testGetUsersPage_ClampsLimitToMaxPageSize() {
+        // Given
+        persistenceProperties.setMaxPageSize(50);
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(10L, PageRequest.of(0, 50))).thenReturn(mockUsers);
+
+        // When
+        List<User> result = userApiClientService.getUsersPage(10L, 500);
+
+        // Then
+        assertThat(result).hasSize(2);
+        verify(userRepository).findByIdGreaterThanOrderByIdAsc(10L, PageRequest.of(0, 50));
+    }
+
+    @Test
+    void testGetUsersPage_WithoutCursorStartsFromFirstId() {
+        // Given
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(Long.MIN_VALUE, PageRequest.of(0, 100)))
+                .thenReturn(mockUsers);
+
+        // When
+        List<User> result = userApiClientService.getUsersPage(null, null);
+
+        // Then
+        assertThat(result).hasSize(2);
+    }
+
+    @Test
+    void testStreamAllUsers_EmitsRowsAndClosesCursor() {
+        // Given
+        AtomicBoolean closed = new AtomicBoolean();
+        when(userJdbcRepository.streamAll())
+                .thenReturn(mockUsers.stream().onClose(() -> closed.set(true)));
+
+        // When & Then
+        StepVerifier.create(userApiClientService.streamAllUsers())
+                .expectNext(mockUsers.get(0))
+                .expectNext(mockUsers.get(1))
+                .verifyComplete();
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void testSyncUsersIncrementally_WritesOnlyChangedUsers() {
+        // Given
+        User unchanged = mockUsers.get(0);
+        User updated = mockUsers.get(1);
+        User inserted = new User(3L, "Bob Brown", "bobbrown", "bob@example.com");
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri("/users")).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToFlux(User.class)).thenReturn(Flux.just(unchanged, updated, inserted));
+        when(fingerprintIndex.classify(List.of(unchanged, updated, inserted))).thenReturn(List.of(
+                UserFingerprintIndex.Change.UNCHANGED,
+                UserFingerprintIndex.Change.UPDATED,
+                UserFingerprintIndex.Change.INSERTED));
+        when(fingerprintIndex.countMissing(any())).thenReturn(4L);
+        when(userJdbcRepository.upsertAll(anyList())).thenReturn(2);
+
+        // When & Then
+        StepVerifier.create(userApiClientService.syncUsersIncrementally())
+                .assertNext(report -> {
+                    assertThat(report.getInserted()).isEqualTo(1);
+                    assertThat(report.getUpdated()).isEqualTo(1);
+                    assertThat(report.getUnchanged()).isEqualTo(1);
+                    assertThat(report.getDeletedUpstream()).isEqualTo(4);
+                })
+                .verifyComplete();
+
+        verify(userJdbcRepository).upsertAll(List.of(updated, inserted));
+    }
+
+    @Test
+    void testSyncUsersIncrementally_FailsOnUserWithoutId() {
+        // Given
+        User withoutId = new User(null, "Bob Brown", "bobbrown", "bob@example.com");
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri("/users")).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToFlux(User.class)).thenReturn(Flux.just(mockUsers.get(0), withoutId));
+
+        // When & Then
+        StepVerifier.create(userApiClientService.syncUsersIncrementally())
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        verifyNoInteractions(fingerprintIndex, userJdbcRepository);
+    }
+
+    @Test
+    void testFetchUsersPaged_StopsAtFirstShortPage() {
+        // Given
+        pagingProperties.setPageSize(2);
+        pagingProperties.setConcurrency(2);
+        User third = new User(3L, "Bob Brown", "bobbrown", "bob@example.com");
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToFlux(User.class))
+                .thenReturn(Flux.fromIterable(mockUsers), Flux.just(third), Flux.empty());
+
+        // When & Then
+        StepVerifier.create(userApiClientService.fetchUsersPaged())
+                .expectNext(mockUsers.get(0), mockUsers.get(1), third)
+                .verifyComplete();
+    }
+
+    @Test
+    void testFetchUsersPaged_FailsWhenLastAllowedPageIsFull() {
+        // Given - two pages allowed, both full, so the feed may go on
+        pagingProperties.setPageSize(2);
+        pagingProperties.setMaxPages(2);
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToFlux(User.class)).thenReturn(Flux.fromIterable(mockUsers));
+
+        // When & Then
+        StepVerifier.create(userApiClientService.fetchUsersPaged())
+                .expectNext(mockUsers.get(0), mockUsers.get(1))
+                .expectErrorMatches(error -> error instanceof IllegalStateException
+                        && error.getMessage().contains("max-pages"))
+                .verify();
+    }
+
+    @Test
+    void testFetchUsersPaged_RetriesFailedPage() {
+        // Given
+        pagingProperties.setPageSize(2);
+        pagingProperties.setConcurrency(1);
+        AtomicInteger attempts = new AtomicInteger();
+        Flux<User> flakyPage = Flux.defer(() -> attempts.incrementAndGet() == 1
+                ? Flux.error(new IllegalStateException("connection reset"))
+                : Flux.just(mockUsers.get(0)));
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToFlux(User.class)).thenReturn(flakyPage);
+
+        // When & Then
+        StepVerifier.create(userApiClientService.fetchUsersPaged())
+                .expectNext(mockUsers.get(0))
+                .verifyComplete();
+        assertThat(attempts).hasValue(2);
+        assertThat(meterRegistry.counter("upstream.retries", "operation", "users.page").count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.service;
+
+import com.example.config.BatchLookupProperties;
+import com.example.config.UserCacheProperties;
+import com.example.entity.User;
+import com.example.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserBatchLoaderTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private UserCache userCache = new UserCache(new UserCacheProperties());
+
+    @Spy
+    private BatchLookupProperties properties = new BatchLookupProperties();
+
+    @Spy
+    private Scheduler blockingIoScheduler = Schedulers.immediate();
+
+    @InjectMocks
+    private UserBatchLoader batchLoader;
+
+    @AfterEach
+    void tearDown() {
+        batchLoader.stop();
+    }
+
+    @Test
+    void testLoad_ConcurrentLookupsShareOneQuery() {
+        // Given
+        properties.setWindow(Duration.ofMillis(50));
+        batchLoader.start();
+        when(userRepository.findAllById(any())).thenReturn(List.of(
+                new User(1L, "John Doe", "johndoe", "john@example.com"),
+                new User(2L, "Jane Smith", "janesmith", "jane@example.com")));
+
+        // When - id 1 is requested twice, id 3 does not exist
+        Flux<User> lookups = Flux.merge(
+                batchLoader.load(1L), batchLoader.load(2L), batchLoader.load(1L), batchLoader.load(3L));
+
+        // Then
+        StepVerifier.create(lookups.map(User::getId).collectList())
+                .assertNext(ids -> assertThat(ids).containsExactlyInAnyOrder(1L, 1L, 2L))
+                .verifyComplete();
+        verify(userRepository, times(1)).findAllById(List.of(1L, 2L, 3L));
+        assertThat(batchLoader.inFlightCount()).isZero();
+    }
+
+    @Test
+    void testLoad_FullBatchDoesNotWaitForWindow() {
+        // Given
+        properties.setWindow(Duration.ofMinutes(1));
+        properties.setMaxBatchSize(2);
+        batchLoader.start();
+        when(userRepository.findAllById(any())).thenReturn(List.of(
+                new User(1L, "John Doe", "johndoe", "john@example.com"),
+                new User(2L, "Jane Smith", "janesmith", "jane@example.com")));
+
+        // When & Then
+        StepVerifier.create(Flux.merge(batchLoader.load(1L), batchLoader.load(2L)).count())
+                .expectNext(2L)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testLoad_CachesUsersItReads() {
+        // Given
+        properties.setWindow(Duration.ofMillis(5));
+        batchLoader.start();
+        User john = new User(1L, "John Doe", "johndoe", "john@example.com");
+        when(userRepository.findAllById(any())).thenReturn(List.of(john));
+
+        // When & Then
+        StepVerifier.create(batchLoader.load(1L))
+                .expectNext(john)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertThat(userCache.getIfPresent(1L)).isSameAs(john);
+    }
+
+    @Test
+    void testLoad_DoesNotCacheRowReadBeforeConcurrentSave() {
+        // Given - a save of the uncached user lands while the batch is reading the old row
+        properties.setWindow(Duration.ofMillis(5));
+        batchLoader.start();
+        User stale = new User(1L, "John Doe", "johndoe", "john@example.com");
+        User saved = new User(1L, "John Doe", "johndoe", "john.doe@example.com");
+        when(userRepository.findAllById(any()))
+                .thenAnswer(invocation -> {
+                    userCache.refreshAll(List.of(saved));
+                    return List.of(stale);
+                })
+                .thenReturn(List.of(saved));
+
+        // When & Then - the caller gets what was read, but it is not served from the cache
+        StepVerifier.create(batchLoader.load(1L))
+                .expectNext(stale)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertThat(userCache.getIfPresent(1L)).isNull();
+
+        // The next read starts after the save and is cached
+        StepVerifier.create(batchLoader.load(1L))
+                .expectNext(saved)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertThat(userCache.getIfPresent(1L)).isSameAs(saved);
+    }
+
+    @Test
+    void testLoad_ReturnsUserCachedWhileBatchWasReading() {
+        // Given - the batch read the old row, then a save cached the new one
+        properties.setWindow(Duration.ofMillis(5));
+        batchLoader.start();
+        User stale = new User(1L, "John Doe", "johndoe", "john@example.com");
+        User saved = new User(1L, "John Doe", "johndoe", "john.doe@example.com");
+        when(userRepository.findAllById(any())).thenAnswer(invocation -> {
+            userCache.put(saved);
+            return List.of(stale);
+        });
+
+        // When & Then
+        StepVerifier.create(batchLoader.load(1L))
+                .expectNext(saved)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertThat(userCache.getIfPresent(1L)).isSameAs(saved);
+    }
+
+    @Test
+    void testLoad_QueryFailureReachesEveryWaiter() {
+        // Given
+        properties.setWindow(Duration.ofMillis(10));
+        batchLoader.start();
+        when(userRepository.findAllById(any()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenReturn(List.of(new User(1L, "John Doe", "johndoe", "john@example.com")));
+
+        // When & Then
+        StepVerifier.create(Flux.mergeDelayError(2, batchLoader.load(1L), batchLoader.load(2L)))
+                .expectErrorSatisfies(error -> assertThat(Exceptions.unwrapMultiple(error))
+                        .hasSize(2)
+                        .allMatch(DataAccessResourceFailureException.class::isInstance))
+                .verify(Duration.ofSeconds(5));
+        assertThat(batchLoader.inFlightCount()).isZero();
+
+        // The pipeline survives a failed batch
+        StepVerifier.create(batchLoader.load(1L).map(User::getId))
+                .expectNext(1L)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testLoad_FailsAndForgetsIdThatCannotBeQueued() {
+        // Given - the batching pipeline is gone, so the queue rejects new ids
+        batchLoader.start();
+        batchLoader.stop();
+
+        // When & Then
+        StepVerifier.create(batchLoader.load(1L))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(1));
+        assertThat(batchLoader.inFlightCount()).isZero();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testLoad_ConcurrentCallersAllGetQueued() {
+        // Given
+        properties.setWindow(Duration.ofMillis(5));
+        batchLoader.start();
+        when(userRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<User> users = new ArrayList<>();
+            invocation.<Iterable<Long>>getArgument(0)
+                    .forEach(id -> users.add(new User(id, "User " + id, "user" + id, "user" + id + "@example.com")));
+            return users;
+        });
+
+        // When - many threads enqueue at once
+        Flux<User> lookups = Flux.range(1, 200)
+                .flatMap(id -> batchLoader.load((long) id).subscribeOn(Schedulers.parallel()));
+
+        // Then
+        StepVerifier.create(lookups.count())
+                .expectNext(200L)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertThat(batchLoader.inFlightCount()).isZero();
+    }
+}
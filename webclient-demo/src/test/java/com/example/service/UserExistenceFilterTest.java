@@ -0,0 +1,156 @@
+package com.example.service;
+
+import com.example.config.ExistenceFilterProperties;
+import com.example.entity.User;
+import com.example.repository.UserJdbcRepository;
+import com.example.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserJdbcRepository userJdbcRepository;
+
+    @Spy
+    private ExistenceFilterProperties properties = new ExistenceFilterProperties();
+
+    @InjectMocks
+    private UserExistenceFilter existenceFilter;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        properties.setExpectedInsertions(1_000);
+        existenceFilter.bindTo(meterRegistry);
+    }
+
+    @Test
+    void testExists_FallsBackToRepositoryBeforeFirstBuild() {
+        // Given
+        when(userRepository.existsByUsername("johndoe")).thenReturn(true);
+
+        // When & Then
+        assertThat(existenceFilter.isReady()).isFalse();
+        assertThat(existenceFilter.existsByUsername("johndoe")).isTrue();
+    }
+
+    @Test
+    void testExists_AbsentValuesSkipRepository() {
+        // Given
+        rebuildWith(new User(1L, "John Doe", "johndoe", "john@example.com"));
+
+        // When
+        boolean exists = existenceFilter.existsByUsername("nobody");
+
+        // Then
+        assertThat(exists).isFalse();
+        verify(userRepository, never()).existsByUsername(any());
+        assertThat(meterRegistry.counter("users.existence.checks", "result", "absent").count()).isEqualTo(1);
+    }
+
+    @Test
+    void testExists_PossibleHitsAreConfirmedByRepository() {
+        // Given
+        rebuildWith(new User(1L, "John Doe", "johndoe", "john@example.com"));
+        when(userRepository.existsByEmail("John@Example.com")).thenReturn(true);
+
+        // When - the column collation is case-insensitive, so the filter must be too
+        boolean exists = existenceFilter.existsByEmail("John@Example.com");
+
+        // Then
+        assertThat(exists).isTrue();
+        verify(userRepository).existsByEmail("John@Example.com");
+    }
+
+    @Test
+    void testAddAll_VisibleBeforeNextRebuild() {
+        // Given
+        rebuildWith();
+        when(userRepository.existsByUsername("janesmith")).thenReturn(true);
+
+        // When
+        existenceFilter.addAll(List.of(new User(2L, "Jane Smith", "janesmith", "jane@example.com")));
+
+        // Then
+        assertThat(existenceFilter.existsByUsername("janesmith")).isTrue();
+    }
+
+    @Test
+    void testRebuild_KeepsUsersAddedWhileScanning() {
+        // Given - a user is saved while the rebuild is reading the table
+        User added = new User(2L, "Jane Smith", "janesmith", "jane@example.com");
+        when(userRepository.count()).thenReturn(1L);
+        when(userJdbcRepository.streamAll()).thenAnswer(invocation -> {
+            existenceFilter.addAll(List.of(added));
+            return Stream.of(new User(1L, "John Doe", "johndoe", "john@example.com"));
+        });
+        when(userRepository.existsByUsername("janesmith")).thenReturn(true);
+
+        // When
+        existenceFilter.rebuild();
+
+        // Then
+        assertThat(existenceFilter.existsByUsername("janesmith")).isTrue();
+    }
+
+    @Test
+    void testExists_AsciiValueMatchesStoredExpansion() {
+        // Given
+        rebuildWith(new User(1L, "Hans Straße", "straße", "hans@example.com"));
+        when(userRepository.existsByUsername("strasse")).thenReturn(true);
+
+        // When - the database collation compares ß equal to ss
+        boolean exists = existenceFilter.existsByUsername("strasse");
+
+        // Then
+        assertThat(exists).isTrue();
+    }
+
+    @Test
+    void testExists_NonAsciiValuesGoToRepository() {
+        // Given
+        rebuildWith(new User(1L, "John Doe", "johndoe", "john@example.com"));
+        when(userRepository.existsByUsername("jöhndœ")).thenReturn(false);
+
+        // When
+        boolean exists = existenceFilter.existsByUsername("jöhndœ");
+
+        // Then
+        assertThat(exists).isFalse();
+        verify(userRepository).existsByUsername("jöhndœ");
+    }
+
+    @Test
+    void testNormalize_FoldsCaseAccentsExpansionsAndSurroundingSpace() {
+        assertThat(UserExistenceFilter.normalize(" José ")).isEqualTo(UserExistenceFilter.normalize("jose"));
+        assertThat(UserExistenceFilter.normalize("Straße")).isEqualTo(UserExistenceFilter.normalize("strasse"));
+        assertThat(UserExistenceFilter.normalize("Æther")).isEqualTo(UserExistenceFilter.normalize("aether"));
+        assertThat(UserExistenceFilter.normalize("œuvre")).isEqualTo(UserExistenceFilter.normalize("oeuvre"));
+        assertThat(UserExistenceFilter.normalize("john")).isNotEqualTo(UserExistenceFilter.normalize("joan"));
+    }
+
+    private void rebuildWith(User... users) {
+        when(userRepository.count()).thenReturn((long) users.length);
+        when(userJdbcRepository.streamAll()).thenReturn(Stream.of(users));
+        existenceFilter.rebuild();
+    }
+}
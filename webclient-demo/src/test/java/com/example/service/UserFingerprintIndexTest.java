@@ -0,0 +1,78 @@
+package com.example.service;
+
+import com.example.entity.User;
+import com.example.repository.UserJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserFingerprintIndexTest {
+
+    @Mock
+    private UserJdbcRepository userJdbcRepository;
+
+    private UserFingerprintIndex fingerprintIndex;
+
+    @BeforeEach
+    void setUp() {
+        fingerprintIndex = new UserFingerprintIndex(userJdbcRepository);
+    }
+
+    @Test
+    void classify_ComparesAgainstStoredRows() {
+        // Given
+        User john = new User(1L, "John Doe", "johndoe", "john@example.com");
+        User jane = new User(2L, "Jane Smith", "janesmith", "jane@example.com");
+        User bob = new User(3L, "Bob Brown", "bobbrown", "bob@example.com");
+        when(userJdbcRepository.findAllByIds(List.of(1L, 2L, 3L)))
+                .thenReturn(List.of(new User(2L, "Jane Smith", "janesmith", "jane.smith@example.com"), john));
+
+        // When & Then
+        assertThat(fingerprintIndex.classify(List.of(john, jane, bob))).containsExactly(
+                UserFingerprintIndex.Change.UNCHANGED,
+                UserFingerprintIndex.Change.UPDATED,
+                UserFingerprintIndex.Change.INSERTED);
+        verify(userJdbcRepository).findAllByIds(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void fingerprint_DistinguishesFieldBoundaries() {
+        // When & Then
+        assertThat(UserFingerprint.of(new User(1L, "ab", "c", "e")))
+                .isNotEqualTo(UserFingerprint.of(new User(1L, "a", "bc", "e")));
+    }
+
+    @Test
+    void countMissing_CountsStoredUsersAbsentFromFeed() {
+        // Given - the feed repeated id 1
+        UserFingerprintIndex.SeenIds seenIds = new UserFingerprintIndex.SeenIds();
+        seenIds.add(2L);
+        seenIds.add(1L);
+        seenIds.add(1L);
+        when(userJdbcRepository.count()).thenReturn(5L);
+
+        // When & Then
+        assertThat(fingerprintIndex.countMissing(seenIds)).isEqualTo(3);
+    }
+
+    @Test
+    void seenIds_GrowsPastInitialCapacity() {
+        // Given
+        UserFingerprintIndex.SeenIds seenIds = new UserFingerprintIndex.SeenIds();
+        for (long id = 5000; id > 0; id--) {
+            seenIds.add(id);
+        }
+
+        // When & Then
+        assertThat(seenIds.distinctCount()).isEqualTo(5000);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.service;
+
+import com.example.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserResponseCacheTest {
+
+    private final UserResponseCache responseCache = new UserResponseCache();
+    private final List<User> users = List.of(new User(1L, "John Doe", "johndoe", "john@example.com"));
+
+    UserResponseCacheTest() {
+        ReflectionTestUtils.setField(responseCache, "objectMapper", new ObjectMapper());
+    }
+
+    @Test
+    void testSerializedUsers_BuiltOncePerVersion() throws IOException {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        UserResponseCache.SerializedUsers first = responseCache.serializedUsers(3, () -> {
+            loads.incrementAndGet();
+            return users;
+        });
+        UserResponseCache.SerializedUsers second = responseCache.serializedUsers(3, () -> {
+            loads.incrementAndGet();
+            return users;
+        });
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(first.eTag()).isEqualTo(UserResponseCache.collectionETag(3));
+        assertThat(first.gzipETag()).isEqualTo("\"users-3-gzip\"");
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(first.gzip()))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(first.json());
+        }
+        assertThat(new String(first.json())).contains("\"username\":\"johndoe\"");
+    }
+
+    @Test
+    void testSerializedUsers_RebuiltForNewerVersion() {
+        // Given
+        UserResponseCache.SerializedUsers first = responseCache.serializedUsers(3, () -> users);
+
+        // When - another node saved, so the table version moved on
+        UserResponseCache.SerializedUsers rebuilt = responseCache.serializedUsers(4, List::of);
+
+        // Then
+        assertThat(rebuilt).isNotSameAs(first);
+        assertThat(rebuilt.eTag()).isNotEqualTo(first.eTag());
+        assertThat(new String(rebuilt.json())).isEqualTo("[]");
+        assertThat(responseCache.serializedUsers(4, () -> users)).isSameAs(rebuilt);
+    }
+
+    @Test
+    void testInvalidate_DropsSerializedBody() {
+        // Given
+        UserResponseCache.SerializedUsers first = responseCache.serializedUsers(3, () -> users);
+
+        // When
+        responseCache.invalidate();
+
+        // Then
+        assertThat(responseCache.serializedUsers(3, () -> users)).isNotSameAs(first);
+    }
+
+    @Test
+    void testUserETag_FollowsContent() {
+        // Given
+        User user = new User(1L, "John Doe", "johndoe", "john@example.com");
+        User renamed = new User(1L, "John Renamed", "johndoe", "john@example.com");
+
+        // When & Then
+        assertThat(UserResponseCache.userETag(user))
+                .isEqualTo(UserResponseCache.userETag(new User(1L, "John Doe", "johndoe", "john@example.com")))
+                .isNotEqualTo(UserResponseCache.userETag(renamed))
+                .startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    void testMatches_HandlesListsWeakTagsAndWildcard() {
+        // Given
+        String eTag = "\"users-1-2\"";
+
+        // When & Then
+        assertThat(UserResponseCache.matches("\"users-1-1\", W/\"users-1-2\"", eTag)).isTrue();
+        assertThat(UserResponseCache.matches("*", eTag)).isTrue();
+        assertThat(UserResponseCache.matches("\"users-1-1\"", eTag)).isFalse();
+        assertThat(UserResponseCache.matches(null, eTag)).isFalse();
+        assertThat(UserResponseCache.variantETag(eTag, 10, 2)).isEqualTo("\"users-1-2-10-2\"");
+    }
+}
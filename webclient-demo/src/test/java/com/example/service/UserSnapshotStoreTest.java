@@ -0,0 +1,106 @@
+package com.example.service;
+
+import com.example.config.SnapshotProperties;
+import com.example.entity.User;
+import com.example.repository.UserJdbcRepository;
+import com.example.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserSnapshotStoreTest {
+
+    private static final User JOHN = new User(1L, "John Doe", "johndoe", "john@example.com");
+    private static final User JANE = new User(2L, "Jane Smith", "janesmith", "jane@example.com");
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserJdbcRepository userJdbcRepository;
+
+    @Spy
+    private SnapshotProperties properties = new SnapshotProperties();
+
+    @Mock
+    private UserResponseCache responseCache;
+
+    @Spy
+    private Scheduler blockingIoScheduler = Schedulers.immediate();
+
+    @InjectMocks
+    private UserSnapshotStore snapshotStore;
+
+    @Test
+    void testRebuild_KeepsRowsAndResponsesButAdoptsNewerVersionWhenRowsAreUnchanged() {
+        // Given
+        when(userJdbcRepository.forEachUser(any())).then(users(3L, JOHN, JANE)).then(users(4L, JOHN, JANE));
+        snapshotStore.rebuild();
+        UserSnapshot first = snapshotStore.current();
+
+        // When - a save rewrote the same rows
+        snapshotStore.rebuild();
+
+        // Then
+        UserSnapshot current = snapshotStore.current();
+        assertThat(current.version()).isEqualTo(4L);
+        assertThat(current.hasSameRowsAs(first)).isTrue();
+        verify(responseCache, times(1)).invalidate();
+        verify(responseCache).retag(3L, 4L);
+    }
+
+    @Test
+    void testRebuild_KeepsSnapshotWhenNothingChanged() {
+        // Given
+        when(userJdbcRepository.forEachUser(any())).then(users(3L, JOHN, JANE));
+        snapshotStore.rebuild();
+        UserSnapshot first = snapshotStore.current();
+
+        // When
+        snapshotStore.rebuild();
+
+        // Then
+        assertThat(snapshotStore.current()).isSameAs(first);
+        verify(responseCache, times(1)).invalidate();
+        verify(responseCache, never()).retag(anyLong(), anyLong());
+    }
+
+    @Test
+    void testRebuild_SwapsAndInvalidatesWhenRowsChange() {
+        // Given
+        when(userJdbcRepository.forEachUser(any()))
+                .then(users(3L, JOHN, JANE))
+                .then(users(4L, JOHN, new User(2L, "Jane Smith", "janesmith", "jane.smith@example.com")));
+        snapshotStore.rebuild();
+
+        // When
+        snapshotStore.rebuild();
+
+        // Then
+        UserSnapshot current = snapshotStore.current();
+        assertThat(current.version()).isEqualTo(4L);
+        assertThat(current.get(2L).getEmail()).isEqualTo("jane.smith@example.com");
+        verify(responseCache, times(2)).invalidate();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Answer<Long> users(long version, User... users) {
+        return invocation -> {
+            List.of(users).forEach(invocation.getArgument(0, Consumer.class));
+            return version;
+        };
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.service;
+
+import com.example.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserSnapshotTest {
+
+    @Test
+    void testGet_RoundTripsEveryRow() {
+        // Given - ids spread over the key space, including negatives and multiples of the table size
+        List<User> users = new ArrayList<>();
+        for (long i = 1; i <= 5_000; i++) {
+            long id = i % 3 == 0 ? -i : i * 1024;
+            users.add(new User(id, "User " + i, "user" + i, "user" + i + "@example.com"));
+        }
+
+        // When
+        UserSnapshot snapshot = UserSnapshot.of(users);
+
+        // Then
+        assertThat(snapshot.size()).isEqualTo(users.size());
+        for (User user : users) {
+            User found = snapshot.get(user.getId());
+            assertThat(found.getId()).isEqualTo(user.getId());
+            assertThat(found.getName()).isEqualTo(user.getName());
+            assertThat(found.getUsername()).isEqualTo(user.getUsername());
+            assertThat(found.getEmail()).isEqualTo(user.getEmail());
+        }
+        assertThat(snapshot.get(7L)).isNull();
+    }
+
+    @Test
+    void testGet_KeepsNullsEmptyStringsAndNonAscii() {
+        // Given
+        UserSnapshot snapshot = UserSnapshot.of(List.of(
+                new User(1L, null, "", "jose@example.com"),
+                new User(2L, "José Müller 李", "josé", null)));
+
+        // When
+        User first = snapshot.get(1L);
+        User second = snapshot.get(2L);
+
+        // Then
+        assertThat(first.getName()).isNull();
+        assertThat(first.getUsername()).isEmpty();
+        assertThat(second.getName()).isEqualTo("José Müller 李");
+        assertThat(second.getUsername()).isEqualTo("josé");
+        assertThat(second.getEmail()).isNull();
+    }
+
+    @Test
+    void testGetPage_SeeksById() {
+        // Given
+        UserSnapshot snapshot = UserSnapshot.of(List.of(
+                new User(30L, "C", "c", "c@example.com"),
+                new User(10L, "A", "a", "a@example.com"),
+                new User(20L, "B", "b", "b@example.com")));
+
+        // When & Then
+        assertThat(snapshot.getPage(Long.MIN_VALUE, 2)).extracting(User::getId).containsExactly(10L, 20L);
+        assertThat(snapshot.getPage(10L, 5)).extracting(User::getId).containsExactly(20L, 30L);
+        assertThat(snapshot.getPage(15L, 1)).extracting(User::getId).containsExactly(20L);
+        assertThat(snapshot.getPage(30L, 5)).isEmpty();
+        assertThat(snapshot.getAll()).extracting(User::getId).containsExactly(10L, 20L, 30L);
+    }
+
+    @Test
+    void testBuilder_RejectsOutOfOrderIds() {
+        // Given
+        UserSnapshot.Builder builder = new UserSnapshot.Builder(2)
+                .add(new User(2L, "B", "b", "b@example.com"));
+
+        // When & Then
+        assertThatThrownBy(() -> builder.add(new User(1L, "A", "a", "a@example.com")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testHasSameRowsAs_ComparesContentOnly() {
+        // Given
+        User john = new User(1L, "John Doe", "johndoe", "john@example.com");
+        User jane = new User(2L, "Jane Smith", "janesmith", "jane@example.com");
+        UserSnapshot snapshot = UserSnapshot.of(List.of(john, jane));
+
+        // When & Then
+        assertThat(snapshot.hasSameRowsAs(new UserSnapshot.Builder(2).add(john).add(jane).version(9).build())).isTrue();
+        assertThat(snapshot.hasSameRowsAs(UserSnapshot.of(List.of(john)))).isFalse();
+        assertThat(snapshot.hasSameRowsAs(UserSnapshot.of(List.of(john, new User(2L, "Jane", "janesmith", "jane@example.com")))))
+                .isFalse();
+    }
+
+    @Test
+    void testWithVersion_KeepsRows() {
+        // Given
+        UserSnapshot snapshot = UserSnapshot.of(List.of(new User(1L, "John Doe", "johndoe", "john@example.com")));
+
+        // When
+        UserSnapshot retagged = snapshot.withVersion(7);
+
+        // Then
+        assertThat(retagged.version()).isEqualTo(7);
+        assertThat(retagged.hasSameRowsAs(snapshot)).isTrue();
+        assertThat(retagged.get(1L).getUsername()).isEqualTo("johndoe");
+    }
+}
@@ -0,0 +1,335 @@
+package com.example.service;
+
+import com.example.config.SyncJobProperties;
+import com.example.dto.IngestionProgress;
+import com.example.dto.SyncReport;
+import com.example.entity.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserSyncCoordinatorTest {
+
+    private static final List<User> USERS = List.of(new User(1L, "John Doe", "johndoe", "john@example.com"));
+
+    @Mock
+    private UserApiClientService userApiClientService;
+
+    @Mock
+    private SyncLockService syncLockService;
+
+    @Spy
+    private SyncJobProperties properties = new SyncJobProperties();
+
+    @Spy
+    private Scheduler blockingIoScheduler = Schedulers.immediate();
+
+    @InjectMocks
+    private UserSyncCoordinator syncCoordinator;
+
+    @Test
+    void testFetchAndSaveUsers_ConcurrentCallersShareOneRun() {
+        // Given
+        Sinks.One<List<User>> upstream = Sinks.one();
+        when(userApiClientService.fetchAndSaveUsers()).thenReturn(upstream.asMono());
+        List<List<User>> results = new ArrayList<>();
+
+        // When
+        syncCoordinator.fetchAndSaveUsers().subscribe(results::add);
+        syncCoordinator.fetchAndSaveUsers().subscribe(results::add);
+        assertThat(syncCoordinator.getRuns()).singleElement()
+                .satisfies(run -> assertThat(run.getCallers()).isEqualTo(2));
+        upstream.tryEmitValue(USERS);
+
+        // Then
+        assertThat(results).containsExactly(USERS, USERS);
+        verify(userApiClientService, times(1)).fetchAndSaveUsers();
+        assertThat(syncCoordinator.getRuns()).isEmpty();
+    }
+
+    @Test
+    void testSubmit_QueuedSyncsAreCoalesced() {
+        // Given a fetch-and-save is running
+        Sinks.One<List<User>> upstream = Sinks.one();
+        when(userApiClientService.fetchAndSaveUsers()).thenReturn(upstream.asMono());
+        when(syncLockService.tryAcquire(eq(UserSyncCoordinator.LOCK_NAME), any(), any(Duration.class))).thenReturn(true);
+        when(userApiClientService.syncUsersIncrementally(any())).thenReturn(Mono.just(new SyncReport(1, 0, 0, 0)));
+        syncCoordinator.fetchAndSaveUsers().subscribe();
+
+        // When
+        SyncRun<SyncReport> first = syncCoordinator.submitIncrementalSync(Duration.ofMinutes(1));
+        SyncRun<SyncReport> second = syncCoordinator.submitIncrementalSync(Duration.ZERO);
+
+        // Then it waits behind the fetch-and-save as one run, and runs once
+        assertThat(second).isSameAs(first);
+        assertThat(first.getStatus()).isEqualTo(SyncRun.Status.QUEUED);
+        assertThat(first.getCallers()).isEqualTo(2);
+        verify(userApiClientService, never()).syncUsersIncrementally(any());
+
+        upstream.tryEmitValue(USERS);
+        StepVerifier.create(first.result())
+                .assertNext(report -> assertThat(report.getInserted()).isEqualTo(1))
+                .verifyComplete();
+        verify(userApiClientService, times(1)).syncUsersIncrementally(any());
+        verify(syncLockService).release(UserSyncCoordinator.LOCK_NAME, properties.getNodeId(), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testSyncUsersIncrementally_EmptyWhenAnotherNodeHoldsTheLock() {
+        // Given
+        when(syncLockService.tryAcquire(eq(UserSyncCoordinator.LOCK_NAME), any(), any(Duration.class))).thenReturn(false);
+
+        // When & Then
+        StepVerifier.create(syncCoordinator.syncUsersIncrementally())
+                .verifyComplete();
+        verify(userApiClientService, never()).syncUsersIncrementally(any());
+        verify(syncLockService, never()).release(any(), any(), any());
+    }
+
+    @Test
+    void testSubmit_RejectsWhenQueueIsFull() {
+        // Given
+        properties.setQueueCapacity(0);
+        when(userApiClientService.fetchAndSaveUsers()).thenReturn(Mono.never());
+        syncCoordinator.fetchAndSaveUsers().subscribe();
+
+        // When & Then
+        assertThatThrownBy(() -> syncCoordinator.submitIncrementalSync(Duration.ZERO))
+                .isInstanceOf(SyncRejectedException.class);
+        StepVerifier.create(syncCoordinator.syncUsersIncrementally())
+                .expectError(SyncRejectedException.class)
+                .verify();
+        assertThatThrownBy(syncCoordinator::submitIngest)
+                .isInstanceOf(SyncRejectedException.class);
+        verify(userApiClientService, never()).syncUsersIncrementally(any());
+        verify(userApiClientService, never()).ingestUsers();
+    }
+
+    @Test
+    void testFetchAndSaveUsersReactively_WaitsBehindRunningSyncAndIsCoalesced() {
+        // Given a fetch-and-save is running
+        Sinks.One<List<User>> upstream = Sinks.one();
+        when(userApiClientService.fetchAndSaveUsers()).thenReturn(upstream.asMono());
+        syncCoordinator.fetchAndSaveUsers().subscribe();
+        AtomicInteger starts = new AtomicInteger();
+        List<Long> results = new ArrayList<>();
+
+        // When
+        syncCoordinator.fetchAndSaveUsersReactively(() -> Mono.fromCallable(() -> (long) starts.incrementAndGet()))
+                .subscribe(results::add);
+        syncCoordinator.fetchAndSaveUsersReactively(() -> Mono.fromCallable(() -> (long) starts.incrementAndGet()))
+                .subscribe(results::add);
+
+        // Then it only starts once the fetch-and-save is done, and once for both callers
+        assertThat(starts).hasValue(0);
+        upstream.tryEmitValue(USERS);
+        assertThat(starts).hasValue(1);
+        assertThat(results).containsExactly(1L, 1L);
+    }
+
+    @Test
+    void testFetchAndSaveUsersReactively_RejectedWhenQueueIsFull() {
+        // Given
+        properties.setQueueCapacity(0);
+        when(userApiClientService.fetchAndSaveUsers()).thenReturn(Mono.never());
+        syncCoordinator.fetchAndSaveUsers().subscribe();
+
+        // When & Then
+        StepVerifier.create(syncCoordinator.fetchAndSaveUsersReactively(() -> Mono.just(1L)))
+                .expectError(SyncRejectedException.class)
+                .verify();
+    }
+
+    @Test
+    void testSubmit_QueuesIncrementalSyncsAheadOfFullRewrites() {
+        // Given a fetch-and-save is running and an ingest is queued
+        properties.setQueueCapacity(2);
+        when(userApiClientService.fetchAndSaveUsers()).thenReturn(Mono.never());
+        syncCoordinator.fetchAndSaveUsers().subscribe();
+        SyncRun<IngestionProgress> ingest = syncCoordinator.submitIngest();
+
+        // When
+        SyncRun<SyncReport> sync = syncCoordinator.submitIncrementalSync(Duration.ZERO);
+
+        // Then
+        assertThat(syncCoordinator.getRuns()).extracting(SyncRun::getOperation).containsExactly(
+                UserSyncCoordinator.Operation.FETCH_AND_SAVE,
+                UserSyncCoordinator.Operation.INCREMENTAL_SYNC,
+                UserSyncCoordinator.Operation.INGEST);
+        assertThat(sync.getStatus()).isEqualTo(SyncRun.Status.QUEUED);
+        assertThat(ingest.getStatus()).isEqualTo(SyncRun.Status.QUEUED);
+    }
+
+    @Test
+    void testSubmit_IncrementalSyncDisplacesQueuedFullRewriteWhenQueueIsFull() {
+        // Given a fetch-and-save is running and an ingest fills the queue
+        when(userApiClientService.fetchAndSaveUsers()).thenReturn(Mono.never());
+        syncCoordinator.fetchAndSaveUsers().subscribe();
+        SyncRun<IngestionProgress> ingest = syncCoordinator.submitIngest();
+
+        // When
+        SyncRun<SyncReport> sync = syncCoordinator.submitIncrementalSync(Duration.ZERO);
+
+        // Then
+        StepVerifier.create(ingest.result())
+                .expectError(SyncRejectedException.class)
+                .verify();
+        assertThat(ingest.getStatus()).isEqualTo(SyncRun.Status.FAILED);
+        assertThat(syncCoordinator.getRuns()).extracting(SyncRun::getOperation).containsExactly(
+                UserSyncCoordinator.Operation.FETCH_AND_SAVE,
+                UserSyncCoordinator.Operation.INCREMENTAL_SYNC);
+        assertThat(sync.getStatus()).isEqualTo(SyncRun.Status.QUEUED);
+        verify(userApiClientService, never()).ingestUsers();
+    }
+
+    @Test
+    void testSubmit_FullRewriteDoesNotDisplaceQueuedIncrementalSync() {
+        // Given a fetch-and-save is running and an incremental sync fills the queue
+        when(userApiClientService.fetchAndSaveUsers()).thenReturn(Mono.never());
+        syncCoordinator.fetchAndSaveUsers().subscribe();
+        SyncRun<SyncReport> sync = syncCoordinator.submitIncrementalSync(Duration.ZERO);
+
+        // When & Then
+        assertThatThrownBy(syncCoordinator::submitIngest)
+                .isInstanceOf(SyncRejectedException.class);
+        assertThat(sync.getStatus()).isEqualTo(SyncRun.Status.QUEUED);
+    }
+
+    @Test
+    void testProgress_StreamsRunningCountsUntilTheRunEnds() {
+        // Given
+        Sinks.One<SyncReport> finished = Sinks.one();
+        when(syncLockService.tryAcquire(eq(UserSyncCoordinator.LOCK_NAME), any(), any(Duration.class))).thenReturn(true);
+        when(syncLockService.renew(eq(UserSyncCoordinator.LOCK_NAME), any(), any(Duration.class))).thenReturn(true);
+        when(userApiClientService.syncUsersIncrementally(any())).thenAnswer(invocation -> {
+            Consumer<SyncReport> progress = invocation.getArgument(0);
+            progress.accept(new SyncReport(5, 0, 0, 0));
+            return finished.asMono();
+        });
+
+        // When
+        SyncRun<SyncReport> run = syncCoordinator.submitIncrementalSync(Duration.ZERO);
+
+        // Then late subscribers see the latest counts, and the stream ends with the run
+        StepVerifier.create(run.progress())
+                .assertNext(report -> assertThat(report.getInserted()).isEqualTo(5))
+                .then(() -> finished.tryEmitValue(new SyncReport(7, 0, 0, 0)))
+                .verifyComplete();
+        assertThat(run.getStatus()).isEqualTo(SyncRun.Status.SUCCEEDED);
+    }
+
+    @Test
+    void testSubmitIncrementalSync_RenewsLeaseAfterEveryChunk() {
+        // Given
+        properties.setNodeId("node-a");
+        when(syncLockService.tryAcquire(UserSyncCoordinator.LOCK_NAME, "node-a", properties.getLockLease())).thenReturn(true);
+        when(syncLockService.renew(UserSyncCoordinator.LOCK_NAME, "node-a", properties.getLockLease())).thenReturn(true);
+        when(userApiClientService.syncUsersIncrementally(any())).thenAnswer(invocation -> {
+            Consumer<SyncReport> progress = invocation.getArgument(0);
+            return Mono.fromCallable(() -> {
+                progress.accept(new SyncReport(1, 0, 0, 0));
+                progress.accept(new SyncReport(2, 0, 0, 0));
+                return new SyncReport(2, 0, 0, 0);
+            });
+        });
+
+        // When & Then
+        StepVerifier.create(syncCoordinator.submitIncrementalSync(Duration.ZERO).result())
+                .assertNext(report -> assertThat(report.getInserted()).isEqualTo(2))
+                .verifyComplete();
+        verify(syncLockService, times(2)).renew(UserSyncCoordinator.LOCK_NAME, "node-a", properties.getLockLease());
+    }
+
+    @Test
+    void testSubmitIncrementalSync_FailsWhenLeaseCannotBeRenewed() {
+        // Given - the lease ran out while a chunk was being written
+        properties.setNodeId("node-a");
+        when(syncLockService.tryAcquire(UserSyncCoordinator.LOCK_NAME, "node-a", properties.getLockLease())).thenReturn(true);
+        when(syncLockService.renew(UserSyncCoordinator.LOCK_NAME, "node-a", properties.getLockLease())).thenReturn(false);
+        AtomicInteger chunksAfterRenewal = new AtomicInteger();
+        when(userApiClientService.syncUsersIncrementally(any())).thenAnswer(invocation -> {
+            Consumer<SyncReport> progress = invocation.getArgument(0);
+            return Mono.fromCallable(() -> {
+                progress.accept(new SyncReport(1, 0, 0, 0));
+                chunksAfterRenewal.incrementAndGet();
+                return new SyncReport(1, 0, 0, 0);
+            });
+        });
+
+        // When
+        SyncRun<SyncReport> run = syncCoordinator.submitIncrementalSync(Duration.ZERO);
+
+        // Then
+        StepVerifier.create(run.result())
+                .expectError(IllegalStateException.class)
+                .verify();
+        assertThat(chunksAfterRenewal).hasValue(0);
+        assertThat(run.getStatus()).isEqualTo(SyncRun.Status.FAILED);
+        verify(syncLockService).release(UserSyncCoordinator.LOCK_NAME, "node-a", Duration.ZERO);
+    }
+
+    @Test
+    void testSubmitIngest_WaitsForTheRunningSyncAndStreamsItsChunks() {
+        // Given a fetch-and-save is running
+        Sinks.One<List<User>> upstream = Sinks.one();
+        when(userApiClientService.fetchAndSaveUsers()).thenReturn(upstream.asMono());
+        when(userApiClientService.ingestUsers()).thenReturn(Flux.just(
+                new IngestionProgress(1, 2, 2), new IngestionProgress(2, 1, 3)));
+        syncCoordinator.fetchAndSaveUsers().subscribe();
+
+        // When
+        SyncRun<IngestionProgress> first = syncCoordinator.submitIngest();
+        SyncRun<IngestionProgress> second = syncCoordinator.submitIngest();
+
+        // Then concurrent ingests share one run, which only writes once the table is free
+        assertThat(second).isSameAs(first);
+        verify(userApiClientService, never()).ingestUsers();
+
+        upstream.tryEmitValue(USERS);
+        StepVerifier.create(first.progress())
+                .assertNext(chunk -> assertThat(chunk.getTotalIngested()).isEqualTo(3))
+                .verifyComplete();
+        StepVerifier.create(first.result())
+                .assertNext(chunk -> assertThat(chunk.getChunk()).isEqualTo(2))
+                .verifyComplete();
+        verify(userApiClientService, times(1)).ingestUsers();
+    }
+
+    @Test
+    void testFetchAndSaveUsers_FailureIsSharedAndFreesTheSlot() {
+        // Given
+        when(userApiClientService.fetchAndSaveUsers())
+                .thenReturn(Mono.error(new IllegalStateException("upstream down")))
+                .thenReturn(Mono.just(USERS));
+
+        // When & Then
+        StepVerifier.create(syncCoordinator.fetchAndSaveUsers())
+                .expectErrorMessage("upstream down")
+                .verify();
+        StepVerifier.create(syncCoordinator.fetchAndSaveUsers())
+                .expectNext(USERS)
+                .verifyComplete();
+    }
+}